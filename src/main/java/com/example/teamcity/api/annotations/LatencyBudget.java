@@ -0,0 +1,16 @@
+package com.example.teamcity.api.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Бюджет суммарного времени HTTP запросов теста в миллисекундах, переопределяет budget.test.maxMs
+ * для метода или всех методов класса. 0 - без бюджета на тест, бюджеты операций при этом действуют.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LatencyBudget {
+    long testMillis();
+}
@@ -0,0 +1,21 @@
+package com.example.teamcity.api.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Тест получает пользователя и/или проект из FixturePool вместо создания в testData.
+ * Если тест меняет выданные сущности (роли, имя, пароль), он объявляет dirties = true, и после теста
+ * они удаляются, а не возвращаются в пул.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PooledFixtures {
+    boolean user() default true;
+
+    boolean project() default true;
+
+    boolean dirties() default false;
+}
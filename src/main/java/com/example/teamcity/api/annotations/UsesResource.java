@@ -0,0 +1,19 @@
+package com.example.teamcity.api.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Общие ресурсы (браузеры Selenoid, соединения TeamCity), которые тест занимает на время от BeforeMethod
+ * до AfterMethod. Одновременно ресурс держат не больше resource.&lt;name&gt;.permits тестов, см.
+ * {@link com.example.teamcity.api.concurrent.ResourceScheduler}. Аннотация на классе наследуется подклассами.
+ */
+@Inherited
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UsesResource {
+    String[] value();
+}
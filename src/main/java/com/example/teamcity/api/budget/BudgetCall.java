@@ -0,0 +1,21 @@
+package com.example.teamcity.api.budget;
+
+import com.example.teamcity.api.enums.Endpoint;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP вызов, выполненный тестом: endpoint равен null для запросов вне {@link Endpoint},
+ * statusCode равен 0, если запрос завершился исключением
+ */
+public record BudgetCall(Endpoint endpoint, String method, String path, int statusCode, long nanos) {
+
+    public double millis() {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "%s %s -> %d in %.1f ms".formatted(method, path, statusCode, millis());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.teamcity.api.budget;
+
+import com.example.teamcity.api.config.Config;
+
+import java.util.Arrays;
+
+/**
+ * Что делать с тестом, превысившим бюджет времени запросов, задается свойством budget.mode в config.properties
+ */
+public enum BudgetMode {
+    /**
+     * Тест остается зеленым, превышения выводятся в лог и прикладываются к Allure (по умолчанию)
+     */
+    FLAG("flag"),
+    /**
+     * Тест падает со списком превысивших бюджет запросов
+     */
+    FAIL("fail"),
+    OFF("off");
+
+    private final String value;
+
+    BudgetMode(String value) {
+        this.value = value;
+    }
+
+    public static BudgetMode fromConfig() {
+        var value = Config.getProperty("budget.mode", FLAG.value).trim();
+        return Arrays.stream(values())
+                .filter(mode -> mode.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown budget.mode: " + value));
+    }
+}
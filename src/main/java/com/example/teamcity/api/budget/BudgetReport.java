@@ -0,0 +1,25 @@
+package com.example.teamcity.api.budget;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Итог проверки бюджетов одного теста: нарушения и вызовы, из-за которых они произошли
+ */
+public record BudgetReport(String test, int calls, long totalNanos, List<String> breaches,
+                           List<BudgetCall> offendingCalls) {
+
+    public boolean isBreached() {
+        return !breaches.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        var report = new StringBuilder("Latency budget exceeded in %s (%d HTTP calls, %d ms):%n"
+                .formatted(test, calls, TimeUnit.NANOSECONDS.toMillis(totalNanos)));
+        breaches.forEach(breach -> report.append("  ").append(breach).append(System.lineSeparator()));
+        report.append("Offending calls:").append(System.lineSeparator());
+        offendingCalls.forEach(call -> report.append("  ").append(call).append(System.lineSeparator()));
+        return report.toString();
+    }
+}
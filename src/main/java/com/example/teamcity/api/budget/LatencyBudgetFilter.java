@@ -0,0 +1,34 @@
+package com.example.teamcity.api.budget;
+
+import com.example.teamcity.api.enums.Endpoint;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Записывает время запроса (сервер и сеть, без наших фильтров) в тест, идущий в текущем потоке,
+ * см. {@link LatencyBudgets}. Ставится последним фильтром спецификации.
+ */
+public class LatencyBudgetFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!LatencyBudgets.isTracking()) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        var start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            response.asByteArray();
+            return response;
+        } finally {
+            var path = requestSpec.getUserDefinedPath();
+            LatencyBudgets.record(new BudgetCall(Endpoint.byPath(path), requestSpec.getMethod(), path,
+                    response == null ? 0 : response.getStatusCode(), System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.teamcity.api.budget;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бюджеты времени HTTP запросов теста.
+ * <p>
+ * Бюджет операции задается свойством budget.&lt;ENDPOINT&gt;.&lt;create|read|update|delete&gt; в миллисекундах:
+ * например, при budget.PROJECTS.create=300 перцентиль budget.percentile времени POST запросов к PROJECTS
+ * за тест не должен превышать 300 мс. Бюджет теста (budget.test.maxMs или @LatencyBudget) ограничивает
+ * суммарное время всех HTTP запросов теста.
+ * <p>
+ * Запросы привязываются к тесту по потоку: {@link LatencyBudgetFilter} записывает их между
+ * {@link #startTest(long)} и {@link #finishTest(String)}. Запросы из других потоков (async, пулы) не учитываются.
+ */
+public final class LatencyBudgets {
+    private static final BudgetMode MODE = BudgetMode.fromConfig();
+    private static final double PERCENTILE = Double.parseDouble(Config.getProperty("budget.percentile", "95"));
+    private static final long TEST_MAX_MS = Config.getIntProperty("budget.test.maxMs", 0);
+    private static final Map<Endpoint, Map<Operation, Long>> OPERATION_BUDGETS = loadOperationBudgets();
+    private static final ThreadLocal<TestCalls> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Операции CrudInterface и соответствующие им HTTP методы
+     */
+    public enum Operation {
+        CREATE("POST"), READ("GET"), UPDATE("PUT"), DELETE("DELETE");
+
+        private final String method;
+
+        Operation(String method) {
+            this.method = method;
+        }
+
+        static Operation byMethod(String method) {
+            for (var operation : values()) {
+                if (operation.method.equalsIgnoreCase(method)) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+    }
+
+    private LatencyBudgets() {
+    }
+
+    public static BudgetMode getMode() {
+        return MODE;
+    }
+
+    public static long getDefaultTestMillis() {
+        return TEST_MAX_MS;
+    }
+
+    private static Map<Endpoint, Map<Operation, Long>> loadOperationBudgets() {
+        var budgets = new EnumMap<Endpoint, Map<Operation, Long>>(Endpoint.class);
+        for (var endpoint : Endpoint.values()) {
+            for (var operation : Operation.values()) {
+                var value = Config.getProperty("budget.%s.%s".formatted(endpoint, operation.name().toLowerCase(Locale.ROOT)));
+                if (value != null && !value.isBlank() && Long.parseLong(value.trim()) > 0) {
+                    budgets.computeIfAbsent(endpoint, key -> new EnumMap<>(Operation.class))
+                            .put(operation, Long.parseLong(value.trim()));
+                }
+            }
+        }
+        return budgets;
+    }
+
+    /**
+     * Начинает запись запросов текущего потока
+     *
+     * @param testMillis бюджет суммарного времени запросов теста, 0 - без бюджета на тест
+     */
+    public static void startTest(long testMillis) {
+        if (MODE != BudgetMode.OFF) {
+            CURRENT.set(new TestCalls(testMillis));
+        }
+    }
+
+    static boolean isTracking() {
+        return CURRENT.get() != null;
+    }
+
+    static void record(BudgetCall call) {
+        var testCalls = CURRENT.get();
+        if (testCalls != null) {
+            testCalls.calls.add(call);
+        }
+    }
+
+    /**
+     * Заканчивает запись запросов текущего потока и проверяет их по бюджетам
+     */
+    public static BudgetReport finishTest(String test) {
+        var testCalls = CURRENT.get();
+        CURRENT.remove();
+        if (testCalls == null) {
+            return new BudgetReport(test, 0, 0, List.of(), List.of());
+        }
+        var calls = testCalls.calls;
+        var breaches = new ArrayList<String>();
+        var offending = new LinkedHashSet<BudgetCall>();
+        OPERATION_BUDGETS.forEach((endpoint, budgets) -> budgets.forEach((operation, budgetMillis) -> {
+            var operationCalls = calls.stream()
+                    .filter(call -> call.endpoint() == endpoint && Operation.byMethod(call.method()) == operation)
+                    .toList();
+            if (operationCalls.isEmpty()) {
+                return;
+            }
+            var percentile = percentileMillis(operationCalls);
+            if (percentile > budgetMillis) {
+                breaches.add("%s.%s p%s %.1f ms > budget %d ms (%d calls)".formatted(endpoint,
+                        operation.name().toLowerCase(Locale.ROOT), formatPercentile(), percentile, budgetMillis,
+                        operationCalls.size()));
+                operationCalls.stream().filter(call -> call.millis() > budgetMillis).forEach(offending::add);
+            }
+        }));
+        var totalNanos = calls.stream().mapToLong(BudgetCall::nanos).sum();
+        if (testCalls.testMillis > 0 && totalNanos > TimeUnit.MILLISECONDS.toNanos(testCalls.testMillis)) {
+            breaches.add("HTTP time %d ms > test budget %d ms"
+                    .formatted(TimeUnit.NANOSECONDS.toMillis(totalNanos), testCalls.testMillis));
+            // Для бюджета теста виноваты самые долгие запросы
+            calls.stream().sorted(Comparator.comparingLong(BudgetCall::nanos).reversed()).limit(10)
+                    .forEach(offending::add);
+        }
+        return new BudgetReport(test, calls.size(), totalNanos, List.copyOf(breaches), List.copyOf(offending));
+    }
+
+    // Перцентиль по методу nearest-rank
+    private static double percentileMillis(List<BudgetCall> calls) {
+        var millis = calls.stream().mapToDouble(BudgetCall::millis).sorted().toArray();
+        var rank = (int) Math.ceil(PERCENTILE / 100 * millis.length);
+        return millis[Math.max(rank, 1) - 1];
+    }
+
+    private static String formatPercentile() {
+        return PERCENTILE == Math.rint(PERCENTILE) ? String.valueOf((long) PERCENTILE) : String.valueOf(PERCENTILE);
+    }
+
+    private static final class TestCalls {
+        private final long testMillis;
+        private final List<BudgetCall> calls = new ArrayList<>();
+
+        private TestCalls(long testMillis) {
+            this.testMillis = testMillis;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.teamcity.api.cleanup;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Журнал созданных сущностей в memory-mapped файле, чтобы удалить их после аварийного завершения JVM.
+ * <p>
+ * Каждая JVM пишет в свой файл journal-&lt;pid&gt;-*.bin в каталоге journal.dir и держит на нем блокировку.
+ * Запись - это [длина][тип][длина имени endpoint][timestamp][имя endpoint][id UTF-8]: endpoint хранится по имени,
+ * чтобы порядок констант {@link Endpoint} не влиял на чтение старых журналов. Тело пишется раньше длины,
+ * поэтому оборванная запись читается как конец журнала. Запись в журнал - это запись в память без fsync:
+ * при падении JVM страницы все равно сбрасывает ОС. Когда место кончается, файл отображается заново
+ * с удвоенным размером.
+ * <p>
+ * Файл создается под временным именем *.tmp и получает имя журнала только после блокировки, иначе другая JVM
+ * могла бы принять новый незаблокированный файл за брошенный и удалить его.
+ * <p>
+ * {@link #recoverAbandoned()} удаляет сущности из журналов завершившихся JVM (файл не заблокирован), для которых
+ * нет записи об удалении. Сущности, которые удалить не удалось, переносятся в журнал текущей JVM.
+ * При нормальном завершении JVM полностью отработанный журнал удаляется.
+ */
+public final class CleanupJournal {
+    private static final boolean ENABLED = Boolean.parseBoolean(Config.getProperty("journal.enabled", "true"));
+    private static final Path DIRECTORY = Paths.get(Config.getProperty("journal.dir", "target/cleanup-journal"));
+    private static final int INITIAL_SIZE = Config.getIntProperty("journal.initialSizeBytes", 1 << 20);
+    private static final String FILE_PREFIX = "journal-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final byte CREATED = 1;
+    private static final byte DELETED = 2;
+    private static final int RECORD_HEADER = Integer.BYTES + 2 + Long.BYTES;
+    private static final byte[][] ENDPOINT_NAMES = endpointNames();
+
+    private static volatile CleanupJournal instance;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private MappedByteBuffer buffer;
+    private int position;
+    private int unfinished;
+
+    private CleanupJournal(Path temporary) throws IOException {
+        this.channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.lock = channel.lock();
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_SIZE);
+        // Переименование не снимает блокировку: файл становится журналом уже заблокированным
+        var name = temporary.getFileName().toString();
+        this.file = Files.move(temporary, temporary.resolveSibling(
+                name.substring(0, name.length() - TEMPORARY_SUFFIX.length()) + FILE_SUFFIX));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeOnExit, "cleanup-journal-shutdown"));
+    }
+
+    /**
+     * Журнал текущей JVM или null, если журнал выключен (journal.enabled=false) или не удалось открыть файл
+     */
+    public static CleanupJournal getInstance() {
+        if (!ENABLED) {
+            return null;
+        }
+        if (instance == null) {
+            synchronized (CleanupJournal.class) {
+                if (instance == null) {
+                    try {
+                        Files.createDirectories(DIRECTORY);
+                        // Уникальное имя: журнал упавшей JVM с тем же pid не должен быть перезаписан
+                        instance = new CleanupJournal(Files.createTempFile(DIRECTORY,
+                                FILE_PREFIX + ProcessHandle.current().pid() + "-", TEMPORARY_SUFFIX));
+                    } catch (IOException e) {
+                        System.err.println("Cleanup journal is disabled: " + e.getMessage());
+                        return null;
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void recordCreated(Endpoint endpoint, String id) {
+        append(CREATED, endpoint, id);
+    }
+
+    public void recordDeleted(Endpoint endpoint, Collection<String> ids) {
+        for (var id : ids) {
+            append(DELETED, endpoint, id);
+        }
+    }
+
+    /**
+     * Удаляет сущности, оставшиеся в журналах завершившихся JVM, и сами журналы. Сущности, которые удалить
+     * не удалось, записываются в журнал текущей JVM; без него старые журналы остаются для следующего запуска
+     */
+    public static Map<Endpoint, DeletionSummary> recoverAbandoned() {
+        var abandoned = new EnumMap<Endpoint, Set<String>>(Endpoint.class);
+        var recovered = new ArrayList<Path>();
+        if (!ENABLED || !Files.isDirectory(DIRECTORY)) {
+            return Map.of();
+        }
+        try (var files = Files.list(DIRECTORY)) {
+            for (var path : files.filter(CleanupJournal::isJournalFile).toList()) {
+                if (readIfAbandoned(path, abandoned)) {
+                    recovered.add(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read cleanup journals in " + DIRECTORY, e);
+        }
+        if (recovered.isEmpty()) {
+            return Map.of();
+        }
+        System.out.println("Recovering %d entities from %d abandoned cleanup journals".formatted(
+                abandoned.values().stream().mapToInt(Set::size).sum(), recovered.size()));
+        var summaries = EntityCleaner.deleteAll(abandoned);
+        if (!keepFailed(abandoned, summaries)) {
+            System.err.println("Cleanup journals are kept for the next run: " + recovered);
+            return summaries;
+        }
+        for (var path : recovered) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.err.println("Cannot delete cleanup journal " + path + ": " + e.getMessage());
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Переносит неудаленные сущности в журнал текущей JVM; false, если такие есть, а журнала нет
+     */
+    private static boolean keepFailed(Map<Endpoint, Set<String>> abandoned, Map<Endpoint, DeletionSummary> summaries) {
+        var journal = getInstance();
+        var kept = true;
+        for (var entry : abandoned.entrySet()) {
+            var failed = new LinkedHashSet<>(entry.getValue());
+            var summary = summaries.get(entry.getKey());
+            if (summary != null) {
+                summary.deletedIds().forEach(failed::remove);
+            }
+            if (failed.isEmpty()) {
+                continue;
+            }
+            if (journal == null) {
+                kept = false;
+                continue;
+            }
+            failed.forEach(id -> journal.recordCreated(entry.getKey(), id));
+        }
+        return kept;
+    }
+
+    private synchronized void append(byte type, Endpoint endpoint, String id) {
+        var nameBytes = ENDPOINT_NAMES[endpoint.ordinal()];
+        var idBytes = id.getBytes(StandardCharsets.UTF_8);
+        var length = RECORD_HEADER - Integer.BYTES + nameBytes.length + idBytes.length;
+        ensureCapacity(Integer.BYTES + length);
+        buffer.put(position + Integer.BYTES, type)
+                .put(position + Integer.BYTES + 1, (byte) nameBytes.length)
+                .putLong(position + Integer.BYTES + 2, System.currentTimeMillis())
+                .put(position + RECORD_HEADER, nameBytes)
+                .put(position + RECORD_HEADER + nameBytes.length, idBytes);
+        // Длина пишется последней: до этого момента запись не видна при чтении журнала
+        buffer.putInt(position, length);
+        position += Integer.BYTES + length;
+        unfinished += type == CREATED ? 1 : -1;
+    }
+
+    private void ensureCapacity(int recordSize) {
+        // Свободные 4 байта после записи остаются нулями и служат маркером конца журнала
+        if (position + recordSize + Integer.BYTES <= buffer.capacity()) {
+            return;
+        }
+        var size = (long) buffer.capacity();
+        while (position + recordSize + Integer.BYTES > size) {
+            size *= 2;
+        }
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow cleanup journal " + file, e);
+        }
+    }
+
+    private synchronized void closeOnExit() {
+        try {
+            lock.release();
+            channel.close();
+            if (unfinished <= 0) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot close cleanup journal " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean isJournalFile(Path path) {
+        var name = path.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+
+    /**
+     * Читает журнал, если его JVM завершилась (блокировку удалось взять), и добавляет незавершенные записи
+     */
+    private static boolean readIfAbandoned(Path path, Map<Endpoint, Set<String>> abandoned) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock fileLock;
+            try {
+                fileLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                return false;
+            }
+            if (fileLock == null) {
+                return false;
+            }
+            try {
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                readRecords(buffer).forEach((endpoint, ids) ->
+                        abandoned.computeIfAbsent(endpoint, key -> new LinkedHashSet<>()).addAll(ids));
+                return true;
+            } finally {
+                fileLock.release();
+            }
+        }
+    }
+
+    private static Map<Endpoint, Set<String>> readRecords(ByteBuffer buffer) {
+        var created = new EnumMap<Endpoint, Set<String>>(Endpoint.class);
+        var position = 0;
+        while (position + RECORD_HEADER <= buffer.limit()) {
+            var length = buffer.getInt(position);
+            if (length < RECORD_HEADER - Integer.BYTES || position + Integer.BYTES + length > buffer.limit()) {
+                break;
+            }
+            var type = buffer.get(position + Integer.BYTES);
+            var nameLength = Byte.toUnsignedInt(buffer.get(position + Integer.BYTES + 1));
+            if (nameLength > length - (RECORD_HEADER - Integer.BYTES)) {
+                break;
+            }
+            var nameBytes = new byte[nameLength];
+            buffer.get(position + RECORD_HEADER, nameBytes);
+            var idBytes = new byte[length - (RECORD_HEADER - Integer.BYTES) - nameLength];
+            buffer.get(position + RECORD_HEADER + nameLength, idBytes);
+            position += Integer.BYTES + length;
+            var endpoint = endpointOf(new String(nameBytes, StandardCharsets.US_ASCII));
+            if (endpoint == null) {
+                continue;
+            }
+            var ids = created.computeIfAbsent(endpoint, key -> new LinkedHashSet<>());
+            var id = new String(idBytes, StandardCharsets.UTF_8);
+            if (type == CREATED) {
+                ids.add(id);
+            } else if (type == DELETED) {
+                ids.remove(id);
+            }
+        }
+        return created;
+    }
+
+    private static Endpoint endpointOf(String name) {
+        try {
+            return Endpoint.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[][] endpointNames() {
+        var endpoints = Endpoint.values();
+        var names = new byte[endpoints.length][];
+        for (var endpoint : endpoints) {
+            names[endpoint.ordinal()] = endpoint.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.teamcity.api.cleanup;
+
+import com.example.teamcity.api.enums.Endpoint;
+import org.apache.http.HttpStatus;
+
+public record DeletionResult(Endpoint endpoint, String id, int statusCode, int attempts, long latencyNanos) {
+
+    /**
+     * 404 считается успешным удалением: сущность уже удалена (например, вместе с родительским проектом)
+     */
+    public boolean isSuccessful() {
+        return statusCode >= HttpStatus.SC_OK && statusCode < HttpStatus.SC_MULTIPLE_CHOICES
+                || statusCode == HttpStatus.SC_NOT_FOUND;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.teamcity.api.cleanup;
+
+import com.example.teamcity.api.enums.Endpoint;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сводка удаления сущностей одного эндпоинта: количество, ошибки, повторы и задержки (в миллисекундах),
+ * results - результаты по каждой сущности
+ */
+public record DeletionSummary(Endpoint endpoint, int total, int failed, int retries,
+                              long avgMillis, long maxMillis, long totalMillis, List<DeletionResult> results) {
+
+    static DeletionSummary of(Endpoint endpoint, List<DeletionResult> results) {
+        var failed = 0;
+        var retries = 0;
+        var sum = 0L;
+        var max = 0L;
+        for (var result : results) {
+            if (!result.isSuccessful()) {
+                failed++;
+            }
+            retries += result.attempts() - 1;
+            sum += result.latencyNanos();
+            max = Math.max(max, result.latencyNanos());
+        }
+        var avg = results.isEmpty() ? 0 : sum / results.size();
+        return new DeletionSummary(endpoint, results.size(), failed, retries,
+                TimeUnit.NANOSECONDS.toMillis(avg), TimeUnit.NANOSECONDS.toMillis(max),
+                TimeUnit.NANOSECONDS.toMillis(sum), results);
+    }
+
+    public List<String> deletedIds() {
+        return results.stream().filter(DeletionResult::isSuccessful).map(DeletionResult::id).toList();
+    }
+
+    @Override
+    public String toString() {
+        return "Cleanup %s: %d deleted, %d failed, %d retries, latency avg %d ms, max %d ms, total %d ms"
+                .formatted(endpoint, total - failed, failed, retries, avgMillis, maxMillis, totalMillis);
+    }
+}
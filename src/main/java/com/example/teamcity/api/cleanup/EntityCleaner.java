@@ -0,0 +1,135 @@
+package com.example.teamcity.api.cleanup;
+
+import com.example.teamcity.api.concurrent.DaemonThreadFactory;
+import com.example.teamcity.api.concurrent.RateLimiter;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.requests.unchecked.UncheckedBase;
+import com.example.teamcity.api.spec.ConnectionPool;
+import com.example.teamcity.api.spec.Specifications;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Параллельное удаление сущностей на ограниченном пуле потоков.
+ * <p>
+ * Эндпоинты обрабатываются по очереди в порядке зависимостей {@link #DELETION_ORDER} (build types до проектов,
+ * проекты до пользователей), затем остальные эндпоинты из переданных сущностей; внутри одного эндпоинта
+ * запросы на удаление выполняются параллельно.
+ * Каждый запрос ограничен таймаутом и повторяется при ответах 409 и 5xx.
+ */
+public final class EntityCleaner {
+    private static final List<Endpoint> DELETION_ORDER = List.of(
+            Endpoint.BUILD_TYPES, Endpoint.PROJECTS, Endpoint.USERS);
+    private static final int THREADS = Config.getIntProperty("cleanup.threads", 8);
+    private static final int TIMEOUT_MS = Config.getIntProperty("cleanup.timeoutMs", 10_000);
+    private static final int RETRIES = Config.getIntProperty("cleanup.retries", 2);
+    private static final long RETRY_BACKOFF_MS = 200;
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            THREADS, new DaemonThreadFactory("entity-cleaner"));
+
+    private EntityCleaner() {
+    }
+
+    /**
+     * Удаляет переданные сущности и возвращает сводку по задержкам для каждого эндпоинта.
+     * Ошибки удаления не пробрасываются, а логируются и учитываются в сводке.
+     */
+    public static Map<Endpoint, DeletionSummary> deleteAll(Map<Endpoint, ? extends Collection<String>> entities) {
+        return deleteAll(entities, RateLimiter.unlimited());
+    }
+
+    /**
+     * То же, но каждая попытка удаления (включая повторы) ждет разрешения от rateLimiter
+     */
+    public static Map<Endpoint, DeletionSummary> deleteAll(Map<Endpoint, ? extends Collection<String>> entities,
+                                                           RateLimiter rateLimiter) {
+        var summaries = new EnumMap<Endpoint, DeletionSummary>(Endpoint.class);
+        for (var endpoint : deletionOrder(entities.keySet())) {
+            var ids = entities.get(endpoint);
+            if (ids == null || ids.isEmpty()) {
+                continue;
+            }
+            var request = new UncheckedBase(timeoutSpec(), endpoint);
+            var futures = new ArrayList<CompletableFuture<DeletionResult>>(ids.size());
+            for (var id : ids) {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> delete(request, endpoint, id, rateLimiter), EXECUTOR));
+            }
+            var summary = DeletionSummary.of(endpoint, futures.stream().map(CompletableFuture::join).toList());
+            summaries.put(endpoint, summary);
+            System.out.println(summary);
+        }
+        return summaries;
+    }
+
+    // Эндпоинты без места в DELETION_ORDER удаляются последними, а не пропускаются
+    private static List<Endpoint> deletionOrder(Collection<Endpoint> endpoints) {
+        var order = new ArrayList<>(DELETION_ORDER);
+        endpoints.stream().filter(endpoint -> !order.contains(endpoint)).sorted().forEach(order::add);
+        return order;
+    }
+
+    private static DeletionResult delete(UncheckedBase request, Endpoint endpoint, String id,
+                                         RateLimiter rateLimiter) {
+        var start = System.nanoTime();
+        var statusCode = -1;
+        var attempt = 0;
+        while (true) {
+            attempt++;
+            rateLimiter.acquire();
+            try {
+                statusCode = request.delete(id).getStatusCode();
+                if (!isRetriable(statusCode)) {
+                    break;
+                }
+            } catch (Exception e) {
+                // RestAssured пробрасывает и проверяемые исключения соединения (ConnectException, таймауты)
+                System.err.println("Error while deleting %s %s: %s".formatted(endpoint, id, e.getMessage()));
+            }
+            if (attempt > RETRIES) {
+                break;
+            }
+            sleep(RETRY_BACKOFF_MS * attempt);
+        }
+        var result = new DeletionResult(endpoint, id, statusCode, attempt, System.nanoTime() - start);
+        if (!result.isSuccessful()) {
+            System.err.println("Cannot delete %s %s, status code %d".formatted(endpoint, id, statusCode));
+        }
+        return result;
+    }
+
+    private static boolean isRetriable(int statusCode) {
+        return statusCode == HttpStatus.SC_CONFLICT || statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    private static RequestSpecification timeoutSpec() {
+        return new RequestSpecBuilder()
+                .addRequestSpecification(Specifications.superUserAuth())
+                .setConfig(RestAssuredConfig.config().httpClient(ConnectionPool.httpClientConfig()
+                        .setParam("http.connection.timeout", TIMEOUT_MS)
+                        .setParam("http.socket.timeout", TIMEOUT_MS)))
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.teamcity.api.cleanup;
+
+import com.example.teamcity.api.concurrent.RateLimiter;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.generators.RandomData;
+import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.requests.CheckedRequests;
+import com.example.teamcity.api.requests.FieldProjection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Удаляет "утекшие" сущности с префиксом RandomData.TEST_PREFIX, которые остались после упавшей JVM
+ * или убитого теста.
+ * <p>
+ * REST API TeamCity не отдает время создания проектов и build types, поэтому возраст считается от момента,
+ * когда сущность впервые увидел sweeper: время хранится в файле sweeper.ledgerFile. Удаляются сущности,
+ * которые видны дольше sweeper.minAgeMinutes, так что данные параллельно идущих сьютов не трогаются.
+ * Коллекции читаются постранично, удаление идет через {@link EntityCleaner} с ограничением
+ * sweeper.deletesPerSecond.
+ * <p>
+ * Возраст надежен, только если ledger один на сервер и переживает запуски: sweeper.ledgerFile нужно указать
+ * в постоянном общем месте (по умолчанию файл в java.io.tmpdir, и на одноразовых агентах sweeper ничего не удаляет).
+ * Сущности, которые дольше minAgeMinutes живут у идущих прогонов (например пул FixturePool долгого сьюта),
+ * тоже будут удалены, поэтому основной способ запуска - отдельно, когда тесты против сервера не идут:
+ * mvn compile exec:java -Dexec.mainClass=com.example.teamcity.api.cleanup.OrphanSweeper
+ * [-Dexec.args=minAgeMinutes]. Запуск перед сьютом (sweeper.beforeSuite) по умолчанию выключен.
+ */
+public final class OrphanSweeper {
+    private static final long MIN_AGE_MS =
+            TimeUnit.MINUTES.toMillis(Config.getIntProperty("sweeper.minAgeMinutes", 60));
+    private static final int DELETES_PER_SECOND = Config.getIntProperty("sweeper.deletesPerSecond", 20);
+    private static final Path LEDGER_FILE = Paths.get(Config.getProperty("sweeper.ledgerFile", defaultLedgerFile()));
+
+    private OrphanSweeper() {
+    }
+
+    public static void main(String[] args) {
+        var minAgeMillis = args.length > 0 ? TimeUnit.MINUTES.toMillis(Long.parseLong(args[0])) : MIN_AGE_MS;
+        sweep(minAgeMillis);
+    }
+
+    public static Map<Endpoint, DeletionSummary> sweep() {
+        return sweep(MIN_AGE_MS);
+    }
+
+    public static synchronized Map<Endpoint, DeletionSummary> sweep(long minAgeMillis) {
+        var ledger = loadLedger();
+        var seen = new Properties();
+        var now = System.currentTimeMillis();
+        var orphans = new EnumMap<Endpoint, List<String>>(Endpoint.class);
+        var young = 0;
+        for (var endpoint : Endpoint.values()) {
+            var locators = new ArrayList<String>();
+            try (var entities = CheckedRequests.forSuperUser().getRequest(endpoint)
+                    .stream(null, FieldProjection.of(projectionOf(endpoint)))) {
+                var iterator = entities.map(OrphanSweeper::orphanLocatorOf).iterator();
+                while (iterator.hasNext()) {
+                    var locator = iterator.next();
+                    if (locator == null) {
+                        continue;
+                    }
+                    var key = endpoint.name() + "|" + locator;
+                    var firstSeen = Long.parseLong(ledger.getProperty(key, Long.toString(now)));
+                    seen.setProperty(key, Long.toString(firstSeen));
+                    if (now - firstSeen >= minAgeMillis) {
+                        locators.add(locator);
+                    } else {
+                        young++;
+                    }
+                }
+            }
+            orphans.put(endpoint, locators);
+        }
+        // Удаленные и исчезнувшие сущности выпадают из журнала, остальные сохраняют время первого обнаружения
+        saveLedger(seen);
+        System.out.println("Orphan sweep: %d entities to delete, %d younger than %d min".formatted(
+                orphans.values().stream().mapToInt(List::size).sum(), young,
+                TimeUnit.MILLISECONDS.toMinutes(minAgeMillis)));
+        return EntityCleaner.deleteAll(orphans, new RateLimiter(DELETES_PER_SECOND));
+    }
+
+    private static String[] projectionOf(Endpoint endpoint) {
+        return endpoint == Endpoint.USERS ? new String[]{"id", "username"} : new String[]{"id", "name"};
+    }
+
+    /**
+     * Локатор для удаления или null, если сущность создана не тестами
+     */
+    private static String orphanLocatorOf(BaseModel model) {
+        if (model instanceof Project project) {
+            return isTestName(project.getId()) || isTestName(project.getName()) ? "id:" + project.getId() : null;
+        }
+        if (model instanceof BuildType buildType) {
+            return isTestName(buildType.getId()) || isTestName(buildType.getName()) ? "id:" + buildType.getId() : null;
+        }
+        if (model instanceof User user) {
+            return isTestName(user.getUsername()) ? "username:" + user.getUsername() : null;
+        }
+        return null;
+    }
+
+    private static boolean isTestName(String value) {
+        return value != null && value.startsWith(RandomData.TEST_PREFIX);
+    }
+
+    private static Properties loadLedger() {
+        var ledger = new Properties();
+        if (Files.exists(LEDGER_FILE)) {
+            try (var reader = Files.newBufferedReader(LEDGER_FILE)) {
+                ledger.load(reader);
+            } catch (IOException e) {
+                System.err.println("Cannot read orphan ledger " + LEDGER_FILE + ": " + e.getMessage());
+            }
+        }
+        return ledger;
+    }
+
+    private static void saveLedger(Properties ledger) {
+        try {
+            var directory = LEDGER_FILE.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            var temporary = Files.createTempFile(directory, "orphans", ".tmp");
+            try (var writer = Files.newBufferedWriter(temporary)) {
+                ledger.store(writer, "First time test entities were seen by OrphanSweeper, epoch millis");
+            }
+            Files.move(temporary, LEDGER_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write orphan ledger " + LEDGER_FILE, e);
+        }
+    }
+
+    private static String defaultLedgerFile() {
+        var host = Config.getProperty("host", "unknown").replaceAll("[^A-Za-z0-9.-]", "_");
+        return Paths.get(System.getProperty("java.io.tmpdir"), "teamcity-orphans-" + host + ".properties").toString();
+    }
+}
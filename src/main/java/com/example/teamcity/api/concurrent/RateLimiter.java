@@ -0,0 +1,43 @@
+package com.example.teamcity.api.concurrent;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ограничитель частоты: разрешения выдаются равномерно, не чаще permitsPerSecond в секунду на все потоки.
+ * Поток, которому выпал более поздний слот, ждет его без удержания блокировки.
+ */
+public final class RateLimiter {
+    private static final RateLimiter UNLIMITED = new RateLimiter(0);
+
+    private final long intervalNanos;
+    private long nextSlotNanos = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond 0 или меньше - без ограничений
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (1_000_000_000L / permitsPerSecond) : 0;
+    }
+
+    public static RateLimiter unlimited() {
+        return UNLIMITED;
+    }
+
+    public void acquire() {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            var now = System.nanoTime();
+            var slot = Math.max(now, nextSlotNanos);
+            nextSlotNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        while (waitNanos > 0 && !Thread.currentThread().isInterrupted()) {
+            var start = System.nanoTime();
+            LockSupport.parkNanos(waitNanos);
+            waitNanos -= System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.teamcity.api.concurrent;
+
+import com.example.teamcity.api.config.Config;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ограничение числа тестов, одновременно занимающих общий ресурс ({@link com.example.teamcity.api.annotations.UsesResource}).
+ * <p>
+ * Емкость ресурса задается свойством resource.&lt;name&gt;.permits, без свойства (или 0) ресурс не ограничен.
+ * Поток теста ждет свободного разрешения в порядке очереди; несколько ресурсов занимаются в порядке имен,
+ * чтобы тесты с пересекающимися наборами не блокировали друг друга.
+ */
+public final class ResourceScheduler {
+    private static final Map<String, Semaphore> RESOURCES = new ConcurrentHashMap<>();
+
+    private ResourceScheduler() {
+    }
+
+    public static Lease acquire(String... resources) {
+        var names = Arrays.stream(resources).distinct().sorted().toArray(String[]::new);
+        var acquired = 0;
+        try {
+            for (; acquired < names.length; acquired++) {
+                semaphore(names[acquired]).acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(names, acquired);
+            throw new IllegalStateException("Interrupted while waiting for resources " + Arrays.toString(names), e);
+        }
+        return new Lease(names);
+    }
+
+    private static Semaphore semaphore(String resource) {
+        return RESOURCES.computeIfAbsent(resource, name -> {
+            var permits = Config.getIntProperty("resource." + name + ".permits", 0);
+            return new Semaphore(permits > 0 ? permits : Integer.MAX_VALUE, true);
+        });
+    }
+
+    private static void release(String[] names, int count) {
+        for (var i = 0; i < count; i++) {
+            semaphore(names[i]).release();
+        }
+    }
+
+    /**
+     * Занятые ресурсы, освобождаются один раз
+     */
+    public static final class Lease implements AutoCloseable {
+        private final String[] names;
+        private boolean released;
+
+        private Lease(String[] names) {
+            this.names = names;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(names, names.length);
+            }
+        }
+    }
+}
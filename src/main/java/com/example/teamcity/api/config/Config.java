@@ -33,7 +33,20 @@ public class Config {
         }
     }
 
+    /**
+     * Системное свойство JVM (-Dkey=value) переопределяет значение из config.properties
+     */
     public static String getProperty(String key) {
-        return getConfig().properties.getProperty(key);
+        return System.getProperty(key, getConfig().properties.getProperty(key));
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        var value = getProperty(key);
+        return value == null ? defaultValue : value;
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        var value = getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
     }
 }
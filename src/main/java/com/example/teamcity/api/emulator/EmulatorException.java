@@ -0,0 +1,37 @@
+package com.example.teamcity.api.emulator;
+
+import org.apache.http.HttpStatus;
+
+/**
+ * Ошибка обработки запроса эмулятором, превращается в ответ {"errors":[{"message":...}]} с заданным статусом
+ */
+final class EmulatorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    EmulatorException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    static EmulatorException badRequest(String message) {
+        return new EmulatorException(HttpStatus.SC_BAD_REQUEST, message);
+    }
+
+    static EmulatorException notFound(String message) {
+        return new EmulatorException(HttpStatus.SC_NOT_FOUND, message);
+    }
+
+    static EmulatorException forbidden(String message) {
+        return new EmulatorException(HttpStatus.SC_FORBIDDEN, message);
+    }
+
+    static EmulatorException serverError(String message) {
+        return new EmulatorException(HttpStatus.SC_INTERNAL_SERVER_ERROR, message);
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.teamcity.api.emulator;
+
+import com.example.teamcity.api.serialization.ModelMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+
+/**
+ * Последний фильтр спецификаций TeamCity при emulator.enabled=true: вместо HTTP запроса ответ строит
+ * {@link TeamCityEmulator}. Предыдущие фильтры (логирование, покрытие, Allure) работают как обычно.
+ */
+public class EmulatorFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        var path = requestSpec.getUserDefinedPath();
+        var query = new LinkedHashMap<String, String>();
+        requestSpec.getQueryParams().forEach(query::put);
+        var querySeparator = path.indexOf('?');
+        if (querySeparator >= 0) {
+            for (var parameter : path.substring(querySeparator + 1).split("&")) {
+                var separator = parameter.indexOf('=');
+                query.putIfAbsent(separator < 0 ? parameter : parameter.substring(0, separator),
+                        separator < 0 ? "" : parameter.substring(separator + 1));
+            }
+            path = path.substring(0, querySeparator);
+        }
+        var userInfo = URI.create(requestSpec.getBaseUri()).getUserInfo();
+        var credentialsSeparator = userInfo == null ? -1 : userInfo.indexOf(':');
+
+        var response = TeamCityEmulator.getInstance().handle(new EmulatorRequest(
+                requestSpec.getMethod(),
+                path,
+                query,
+                readBody(requestSpec.getBody()),
+                userInfo == null ? null : credentialsSeparator < 0 ? userInfo : userInfo.substring(0, credentialsSeparator),
+                credentialsSeparator < 0 ? null : userInfo.substring(credentialsSeparator + 1)));
+
+        var builder = new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine("HTTP/1.1 " + response.statusCode());
+        if (response.body() != null) {
+            builder.setContentType(ContentType.JSON.withCharset(StandardCharsets.UTF_8))
+                    .setBody(response.body().toString().getBytes(StandardCharsets.UTF_8));
+        } else {
+            builder.setBody(new byte[0]);
+        }
+        return builder.build();
+    }
+
+    private static JsonNode readBody(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            if (body instanceof byte[] bytes) {
+                return bytes.length == 0 ? null : ModelMapper.getMapper().readTree(new String(bytes, StandardCharsets.UTF_8));
+            }
+            if (body instanceof String text) {
+                return text.isEmpty() ? null : ModelMapper.getMapper().readTree(text);
+            }
+            return ModelMapper.getMapper().valueToTree(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot parse request body for TeamCity emulator", e);
+        }
+    }
+}
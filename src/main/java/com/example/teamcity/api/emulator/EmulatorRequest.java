@@ -0,0 +1,13 @@
+package com.example.teamcity.api.emulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+
+/**
+ * Запрос к эмулятору: путь относительно base URI спецификации (например /app/rest/projects/id:X),
+ * учетные данные из base URI (username null - запрос без авторизации)
+ */
+record EmulatorRequest(String method, String path, Map<String, String> query, JsonNode body,
+                       String username, String password) {
+}
@@ -0,0 +1,9 @@
+package com.example.teamcity.api.emulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Ответ эмулятора, body null - ответ без тела
+ */
+record EmulatorResponse(int statusCode, JsonNode body) {
+}
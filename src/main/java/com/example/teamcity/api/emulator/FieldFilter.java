@@ -0,0 +1,60 @@
+package com.example.teamcity.api.emulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Применяет параметр fields ("count,project(id,name)") к ответу: остаются только перечисленные поля,
+ * для вложенных объектов и элементов массивов рекурсивно применяется список в скобках
+ */
+final class FieldFilter {
+    private final Map<String, FieldFilter> fields;
+
+    private FieldFilter(Map<String, FieldFilter> fields) {
+        this.fields = fields;
+    }
+
+    static JsonNode apply(JsonNode node, String fields) {
+        return fields == null || fields.isBlank() ? node : parse(fields).filter(node);
+    }
+
+    private static FieldFilter parse(String fields) {
+        var parsed = new LinkedHashMap<String, FieldFilter>();
+        for (var field : Locator.splitTopLevel(fields)) {
+            var open = field.indexOf('(');
+            if (open < 0) {
+                parsed.put(field.trim(), null);
+            } else {
+                parsed.put(field.substring(0, open).trim(), parse(field.substring(open + 1, field.lastIndexOf(')'))));
+            }
+        }
+        return new FieldFilter(parsed);
+    }
+
+    private JsonNode filter(JsonNode node) {
+        if (node instanceof ArrayNode array) {
+            for (var i = 0; i < array.size(); i++) {
+                array.set(i, filter(array.get(i)));
+            }
+            return array;
+        }
+        if (!(node instanceof ObjectNode object)) {
+            return node;
+        }
+        var names = new ArrayList<String>();
+        object.fieldNames().forEachRemaining(names::add);
+        for (var name : names) {
+            if (!fields.containsKey(name)) {
+                object.remove(name);
+            } else if (fields.get(name) != null) {
+                object.set(name, fields.get(name).filter(object.get(name)));
+            }
+        }
+        return object;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.teamcity.api.emulator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Разобранный локатор TeamCity: "id:X", "affectedProject:(id:X),count:2" или одиночное значение без измерения
+ * (ключ {@link #PLAIN}). Строка, не начинающаяся с измерения, целиком считается одиночным значением,
+ * поэтому имена с запятыми и скобками не разбиваются.
+ */
+final class Locator {
+    static final String PLAIN = "";
+    private static final Pattern DIMENSION = Pattern.compile("^[A-Za-z]+:.*", Pattern.DOTALL);
+
+    private final Map<String, String> dimensions;
+
+    private Locator(Map<String, String> dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    static Locator parse(String locator) {
+        var dimensions = new LinkedHashMap<String, String>();
+        if (locator == null) {
+            return new Locator(dimensions);
+        }
+        if (!DIMENSION.matcher(locator).matches()) {
+            dimensions.put(PLAIN, locator);
+            return new Locator(dimensions);
+        }
+        for (var part : splitTopLevel(locator)) {
+            var separator = part.indexOf(':');
+            if (separator < 0) {
+                dimensions.put(PLAIN, part);
+                continue;
+            }
+            var value = part.substring(separator + 1);
+            if (value.startsWith("(") && value.endsWith(")")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            dimensions.put(part.substring(0, separator), value);
+        }
+        return new Locator(dimensions);
+    }
+
+    String get(String dimension) {
+        return dimensions.get(dimension);
+    }
+
+    int getInt(String dimension, int defaultValue) {
+        var value = dimensions.get(dimension);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw EmulatorException.badRequest("Invalid value of dimension '%s': %s".formatted(dimension, value));
+        }
+    }
+
+    Iterable<String> names() {
+        return dimensions.keySet();
+    }
+
+    Locator with(String dimension, String value) {
+        var copy = new LinkedHashMap<>(dimensions);
+        copy.put(dimension, value);
+        return new Locator(copy);
+    }
+
+    @Override
+    public String toString() {
+        var parts = new ArrayList<String>();
+        dimensions.forEach((dimension, value) -> {
+            var nested = value.contains(":") || value.contains(",");
+            parts.add(PLAIN.equals(dimension) ? value : dimension + ":" + (nested ? "(" + value + ")" : value));
+        });
+        return String.join(",", parts);
+    }
+
+    // Делит по запятым верхнего уровня, запятые внутри скобок относятся к вложенным локаторам и полям
+    static List<String> splitTopLevel(String value) {
+        var parts = new ArrayList<String>();
+        var depth = 0;
+        var start = 0;
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(value.substring(start));
+        return parts;
+    }
+}
@@ -0,0 +1,579 @@
+package com.example.teamcity.api.emulator;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.ParentProject;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.models.Roles;
+import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.serialization.ModelMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.HttpStatus;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Эмулятор REST API TeamCity в памяти процесса: projects, buildTypes, users (CRUD по {@link Endpoint})
+ * и server/authSettings. Включается свойством emulator.enabled, тогда спецификации TeamCity обрабатывают запросы
+ * фильтром {@link EmulatorFilter} без сетевых вызовов.
+ * <p>
+ * Состояние хранится в ConcurrentHashMap, проверки уникальности и запись выполняются под общей блокировкой.
+ * Статусы и сообщения ошибок повторяют ответы TeamCity, которые проверяет ValidationResponseSpecifications.
+ * Поддерживаются локаторы id, name, username, project, affectedProject, count, start и параметр fields.
+ */
+public final class TeamCityEmulator {
+    private static final boolean ENABLED = Boolean.parseBoolean(Config.getProperty("emulator.enabled", "false"));
+    private static final TeamCityEmulator INSTANCE = new TeamCityEmulator();
+
+    private static final String REST_PREFIX = "/app/rest/";
+    private static final String AUTH_SETTINGS = "server/authSettings";
+    private static final String ROOT_PROJECT_ID = "_Root";
+    private static final String SYSTEM_ADMIN = "SYSTEM_ADMIN";
+    private static final String GLOBAL_SCOPE = "g";
+    private static final int MAX_ID_LENGTH = 225;
+    private static final String ID_RULES = ". ID should start with a latin letter and contain only latin letters,"
+            + " digits and underscores (at most 225 characters).";
+
+    private final ObjectMapper mapper = ModelMapper.getMapper();
+    private final Map<String, Project> projects = new ConcurrentHashMap<>();
+    private final Map<String, BuildType> buildTypes = new ConcurrentHashMap<>();
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final AtomicLong userIds = new AtomicLong(1);
+    private final Object writeLock = new Object();
+    private volatile JsonNode authSettings;
+
+    private TeamCityEmulator() {
+        var rootProject = new ParentProject();
+        projects.put(ROOT_PROJECT_ID, Project.builder()
+                .id(rootProject.getId())
+                .name(rootProject.getName())
+                .description(rootProject.getDescription())
+                .build());
+        authSettings = mapper.createObjectNode()
+                .put("perProjectPermissions", false)
+                .set("modules", mapper.createObjectNode().set("module", mapper.createArrayNode()
+                        .add(mapper.createObjectNode().put("name", "Default"))
+                        .add(mapper.createObjectNode().put("name", "HTTP-Basic"))));
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static TeamCityEmulator getInstance() {
+        return INSTANCE;
+    }
+
+    EmulatorResponse handle(EmulatorRequest request) {
+        try {
+            var caller = authenticate(request);
+            if (!request.path().startsWith(REST_PREFIX)) {
+                throw EmulatorException.notFound("Path is not supported by the emulator: " + request.path());
+            }
+            var resourcePath = request.path().substring(REST_PREFIX.length());
+            if (resourcePath.equals(AUTH_SETTINGS)) {
+                return authSettings(request, caller);
+            }
+            var separator = resourcePath.indexOf('/');
+            var endpoint = endpointOf(separator < 0 ? resourcePath : resourcePath.substring(0, separator));
+            var locator = separator < 0 ? null : resourcePath.substring(separator + 1);
+            return locator == null ? collection(endpoint, request, caller) : entity(endpoint, locator, request, caller);
+        } catch (EmulatorException e) {
+            return error(e.getStatusCode(), e.getMessage());
+        }
+    }
+
+    private Caller authenticate(EmulatorRequest request) {
+        if (request.username() == null) {
+            throw new EmulatorException(HttpStatus.SC_UNAUTHORIZED, "Authentication required");
+        }
+        if (request.username().isEmpty()) {
+            var token = Config.getProperty("superUserToken");
+            if (token == null || token.equals(request.password())) {
+                return new Caller(null);
+            }
+        } else {
+            var user = findUserByUsername(request.username());
+            if (user != null && Objects.equals(user.getPassword(), request.password())) {
+                return new Caller(user);
+            }
+        }
+        throw new EmulatorException(HttpStatus.SC_UNAUTHORIZED, "Incorrect username or password.");
+    }
+
+    private EmulatorResponse authSettings(EmulatorRequest request, Caller caller) {
+        return switch (request.method()) {
+            case "GET" -> ok(authSettings.deepCopy());
+            case "PUT" -> {
+                caller.requireSystemAdmin();
+                authSettings = requireObject(request.body());
+                yield ok(authSettings.deepCopy());
+            }
+            default -> throw methodNotAllowed(request);
+        };
+    }
+
+    private EmulatorResponse collection(Endpoint endpoint, EmulatorRequest request, Caller caller) {
+        return switch (request.method()) {
+            case "GET" -> ok(page(endpoint, request.query()));
+            case "POST" -> ok(FieldFilter.apply(view(create(endpoint, requireObject(request.body()), caller)),
+                    request.query().get("fields")));
+            default -> throw methodNotAllowed(request);
+        };
+    }
+
+    private EmulatorResponse entity(Endpoint endpoint, String locator, EmulatorRequest request, Caller caller) {
+        return switch (request.method()) {
+            case "GET" -> ok(FieldFilter.apply(view(find(endpoint, locator)), request.query().get("fields")));
+            case "DELETE" -> {
+                caller.requireSystemAdmin();
+                delete(endpoint, find(endpoint, locator));
+                yield new EmulatorResponse(HttpStatus.SC_NO_CONTENT, null);
+            }
+            // TeamCity не поддерживает PUT сущности целиком, только отдельных полей
+            default -> throw methodNotAllowed(request);
+        };
+    }
+
+    private JsonNode page(Endpoint endpoint, Map<String, String> query) {
+        var locator = Locator.parse(query.get("locator"));
+        var matched = select(endpoint, locator).sorted(Comparator.comparing(this::idOf)).toList();
+        var start = Math.min(locator.getInt("start", 0), matched.size());
+        var count = locator.getInt("count", matched.size());
+        var page = matched.subList(start, Math.min(start + count, matched.size()));
+
+        var items = mapper.createArrayNode();
+        page.forEach(model -> items.add(view(model)));
+        var node = mapper.createObjectNode().put("count", page.size());
+        node.set(endpoint.getCollectionItem(), items);
+        if (start + page.size() < matched.size()) {
+            var nextHref = new StringBuilder(endpoint.getUrl())
+                    .append("?locator=").append(encode(locator.with("start", String.valueOf(start + count)).toString()));
+            if (query.get("fields") != null) {
+                nextHref.append("&fields=").append(encode(query.get("fields")));
+            }
+            node.put("nextHref", nextHref.toString());
+        }
+        return FieldFilter.apply(node, query.get("fields"));
+    }
+
+    private Stream<? extends BaseModel> select(Endpoint endpoint, Locator locator) {
+        Stream<? extends BaseModel> selected = switch (endpoint) {
+            case PROJECTS -> projects.values().stream();
+            case BUILD_TYPES -> buildTypes.values().stream();
+            case USERS -> users.values().stream();
+        };
+        for (var dimension : locator.names()) {
+            var value = locator.get(dimension);
+            selected = switch (dimension) {
+                case "count", "start" -> selected;
+                case "id" -> selected.filter(model -> value.equals(idOf(model)));
+                case "name" -> selected.filter(model -> value.equals(nameOf(model)));
+                case Locator.PLAIN -> selected.filter(model -> value.equals(idOf(model)) || value.equals(nameOf(model)));
+                case "project", "affectedProject" -> {
+                    if (endpoint == Endpoint.USERS) {
+                        throw unknownDimension(dimension);
+                    }
+                    var project = findProject(value);
+                    var projectIds = "project".equals(dimension) ? Set.of(project.getId()) : subtreeOf(project.getId());
+                    yield selected.filter(model -> projectIds.contains(projectIdOf(model)));
+                }
+                default -> throw unknownDimension(dimension);
+            };
+        }
+        return selected;
+    }
+
+    private BaseModel find(Endpoint endpoint, String locator) {
+        return switch (endpoint) {
+            case PROJECTS -> findProject(locator);
+            case BUILD_TYPES -> findBuildType(locator);
+            case USERS -> findUser(locator);
+        };
+    }
+
+    private BaseModel create(Endpoint endpoint, JsonNode body, Caller caller) {
+        return switch (endpoint) {
+            case PROJECTS -> createProject(read(body, Project.class), caller);
+            case BUILD_TYPES -> createBuildType(read(body, BuildType.class), caller);
+            case USERS -> createUser(read(body, User.class), caller);
+        };
+    }
+
+    private void delete(Endpoint endpoint, BaseModel model) {
+        synchronized (writeLock) {
+            switch (endpoint) {
+                case PROJECTS -> {
+                    var project = (Project) model;
+                    if (ROOT_PROJECT_ID.equals(project.getId())) {
+                        throw EmulatorException.badRequest("Root project cannot be deleted.");
+                    }
+                    // Вместе с проектом удаляются подпроекты и их build types
+                    var subtree = subtreeOf(project.getId());
+                    buildTypes.values().removeIf(buildType -> subtree.contains(buildType.getProject().getId()));
+                    projects.keySet().removeAll(subtree);
+                }
+                case BUILD_TYPES -> buildTypes.remove(((BuildType) model).getId());
+                case USERS -> users.remove(((User) model).getId());
+            }
+        }
+    }
+
+    private Project createProject(Project request, Caller caller) {
+        var parentLocator = request.getParentProject() == null || request.getParentProject().getId() == null
+                ? ROOT_PROJECT_ID : request.getParentProject().getId();
+        var parent = findProject("id:" + parentLocator);
+        if (!caller.isSystemAdmin()) {
+            throw EmulatorException.forbidden(
+                    "You do not have \"Create subproject\" permission in project with internal id: " + parent.getId());
+        }
+        var name = request.getName();
+        if (name == null || name.isEmpty()) {
+            throw EmulatorException.badRequest("Project name cannot be empty.");
+        }
+        if (name.isBlank()) {
+            throw EmulatorException.serverError("Given project name is empty.");
+        }
+        var id = request.getId() == null ? generateId(name) : request.getId();
+        validateId("Project ID", id);
+        if (request.getSourceProject() != null) {
+            findProject(request.getSourceProject().getLocator());
+        }
+
+        var project = Project.builder()
+                .id(id)
+                .name(name)
+                .description(request.getDescription())
+                .parentProject(new ParentProject(parent.getId(), parent.getName(), parent.getDescription()))
+                .build();
+        synchronized (writeLock) {
+            if (projects.containsKey(id)) {
+                throw EmulatorException.badRequest("Project ID \"%s\" is already used by another project".formatted(id));
+            }
+            if (projects.values().stream().anyMatch(existing -> name.equals(existing.getName())
+                    && existing.getParentProject() != null && parent.getId().equals(existing.getParentProject().getId()))) {
+                throw EmulatorException.badRequest("Project with this name already exists: " + name);
+            }
+            projects.put(id, project);
+        }
+        return project;
+    }
+
+    private BuildType createBuildType(BuildType request, Caller caller) {
+        if (request.getProject() == null || request.getProject().getId() == null) {
+            throw EmulatorException.badRequest("Build type creation request should contain project node.");
+        }
+        var project = findProject("id:" + request.getProject().getId());
+        if (!caller.isSystemAdmin()) {
+            throw EmulatorException.forbidden("You do not have enough permissions to edit project with id: "
+                    + project.getId());
+        }
+        var name = request.getName();
+        if (name == null || name.isBlank()) {
+            throw EmulatorException.badRequest("When creating a build type, non empty name should be provided.");
+        }
+        var id = request.getId() == null ? generateId(project.getId() + "_" + name) : request.getId();
+        validateId("Build configuration or template ID", id);
+
+        var buildType = BuildType.builder()
+                .id(id)
+                .name(name)
+                .project(Project.builder()
+                        .id(project.getId())
+                        .name(project.getName())
+                        .parentProject(project.getParentProject())
+                        .build())
+                .steps(request.getSteps())
+                .build();
+        synchronized (writeLock) {
+            if (!projects.containsKey(project.getId())) {
+                throw projectNotFound("id:" + project.getId());
+            }
+            if (buildTypes.containsKey(id)) {
+                throw EmulatorException.badRequest(("The build configuration / template ID \"%s\" is already used"
+                        + " by another configuration or template").formatted(id));
+            }
+            buildTypes.put(id, buildType);
+        }
+        return buildType;
+    }
+
+    private User createUser(User request, Caller caller) {
+        caller.requireSystemAdmin();
+        var username = request.getUsername();
+        if (username == null || username.isBlank()) {
+            throw EmulatorException.badRequest("Username must not be empty when creating user.");
+        }
+        var user = User.builder()
+                .id(String.valueOf(userIds.incrementAndGet()))
+                .username(username)
+                .password(request.getPassword())
+                .roles(request.getRoles() == null ? new Roles(List.of()) : request.getRoles())
+                .build();
+        synchronized (writeLock) {
+            if (findUserByUsername(username) != null) {
+                throw EmulatorException.badRequest("Duplicate user account with username \"%s\" found".formatted(username));
+            }
+            users.put(user.getId(), user);
+        }
+        return user;
+    }
+
+    private Project findProject(String locator) {
+        var parsed = Locator.parse(locator);
+        Project project = null;
+        if (parsed.get("id") != null) {
+            project = projects.get(parsed.get("id"));
+        } else if (parsed.get("name") != null) {
+            project = findByName(projects.values(), parsed.get("name"));
+        } else if (parsed.get(Locator.PLAIN) != null) {
+            var value = parsed.get(Locator.PLAIN);
+            project = projects.containsKey(value) ? projects.get(value) : findByName(projects.values(), value);
+        }
+        if (project == null) {
+            throw projectNotFound(locator);
+        }
+        return project;
+    }
+
+    private BuildType findBuildType(String locator) {
+        var parsed = Locator.parse(locator);
+        BuildType buildType = null;
+        if (parsed.get("id") != null) {
+            buildType = buildTypes.get(parsed.get("id"));
+        } else if (parsed.get("name") != null) {
+            buildType = findByName(buildTypes.values(), parsed.get("name"));
+        } else if (parsed.get(Locator.PLAIN) != null) {
+            var value = parsed.get(Locator.PLAIN);
+            buildType = buildTypes.containsKey(value) ? buildTypes.get(value) : findByName(buildTypes.values(), value);
+        }
+        if (buildType == null) {
+            throw EmulatorException.notFound(
+                    "No build type or template is found by id, internal id or name '%s'.".formatted(locator));
+        }
+        return buildType;
+    }
+
+    private User findUser(String locator) {
+        var parsed = Locator.parse(locator);
+        User user = null;
+        if (parsed.get("id") != null) {
+            user = users.get(parsed.get("id"));
+        } else if (parsed.get("username") != null) {
+            user = findUserByUsername(parsed.get("username"));
+        } else if (parsed.get(Locator.PLAIN) != null) {
+            var value = parsed.get(Locator.PLAIN);
+            user = users.containsKey(value) ? users.get(value) : findUserByUsername(value);
+        }
+        if (user == null) {
+            throw EmulatorException.notFound("No user can be found by locator '%s'.".formatted(locator));
+        }
+        return user;
+    }
+
+    private User findUserByUsername(String username) {
+        return users.values().stream().filter(user -> username.equals(user.getUsername())).findFirst().orElse(null);
+    }
+
+    private <T extends BaseModel> T findByName(Iterable<T> models, String name) {
+        for (var model : models) {
+            if (name.equals(nameOf(model))) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    private Set<String> subtreeOf(String projectId) {
+        var subtree = new HashSet<String>();
+        subtree.add(projectId);
+        var added = true;
+        while (added) {
+            added = false;
+            for (var project : projects.values()) {
+                if (project.getParentProject() != null && subtree.contains(project.getParentProject().getId())) {
+                    added |= subtree.add(project.getId());
+                }
+            }
+        }
+        return subtree;
+    }
+
+    private static void validateId(String label, String id) {
+        if (id.isEmpty()) {
+            throw EmulatorException.serverError(label + " must not be empty.");
+        }
+        String reason = null;
+        if (id.length() > MAX_ID_LENGTH) {
+            reason = "it is %d characters long while the maximum length is %d".formatted(id.length(), MAX_ID_LENGTH);
+        } else if (!Character.isLetter(id.charAt(0))) {
+            reason = "starts with non-letter character '%c'".formatted(id.charAt(0));
+        } else {
+            for (var c : id.toCharArray()) {
+                if (Character.isLetter(c) && !isLatinLetter(c)) {
+                    reason = "contains non-latin letter '%c'".formatted(c);
+                    break;
+                }
+                if (!isLatinLetter(c) && !Character.isDigit(c) && c != '_') {
+                    reason = "contains unsupported character '%c'".formatted(c);
+                    break;
+                }
+            }
+        }
+        if (reason != null) {
+            throw EmulatorException.serverError("%s \"%s\" is invalid: %s%s".formatted(label, id, reason, ID_RULES));
+        }
+    }
+
+    private static boolean isLatinLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    // Как TeamCity: id из латинских букв и цифр имени
+    private static String generateId(String name) {
+        var id = name.replaceAll("[^A-Za-z0-9_]", "");
+        return id.isEmpty() || !isLatinLetter(id.charAt(0)) ? "Project" + id : id;
+    }
+
+    private String idOf(BaseModel model) {
+        if (model instanceof Project project) {
+            return project.getId();
+        }
+        if (model instanceof BuildType buildType) {
+            return buildType.getId();
+        }
+        return ((User) model).getId();
+    }
+
+    private String nameOf(BaseModel model) {
+        if (model instanceof Project project) {
+            return project.getName();
+        }
+        if (model instanceof BuildType buildType) {
+            return buildType.getName();
+        }
+        return ((User) model).getUsername();
+    }
+
+    private String projectIdOf(BaseModel model) {
+        if (model instanceof Project project) {
+            return project.getParentProject() == null ? null : project.getParentProject().getId();
+        }
+        return ((BuildType) model).getProject().getId();
+    }
+
+    // Представление сущности в ответе: без null полей и без пароля пользователя
+    private JsonNode view(BaseModel model) {
+        var node = mapper.valueToTree(model);
+        removeNulls(node);
+        if (node instanceof ObjectNode object) {
+            object.remove("password");
+        }
+        return node;
+    }
+
+    private static void removeNulls(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            var names = new ArrayList<String>();
+            object.fieldNames().forEachRemaining(names::add);
+            for (var name : names) {
+                if (object.get(name).isNull()) {
+                    object.remove(name);
+                } else {
+                    removeNulls(object.get(name));
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(TeamCityEmulator::removeNulls);
+        }
+    }
+
+    private static JsonNode requireObject(JsonNode body) {
+        if (body == null || !body.isObject()) {
+            throw EmulatorException.badRequest("Request body is empty or is not a JSON object");
+        }
+        return body;
+    }
+
+    private <T> T read(JsonNode body, Class<T> type) {
+        try {
+            return mapper.treeToValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw EmulatorException.badRequest("Cannot read request body: " + e.getOriginalMessage());
+        }
+    }
+
+    private EmulatorResponse ok(JsonNode body) {
+        return new EmulatorResponse(HttpStatus.SC_OK, body);
+    }
+
+    private EmulatorResponse error(int statusCode, String message) {
+        var errors = mapper.createArrayNode().add(mapper.createObjectNode().put("message", message));
+        return new EmulatorResponse(statusCode, mapper.createObjectNode().set("errors", errors));
+    }
+
+    private static Endpoint endpointOf(String resource) {
+        for (var endpoint : Endpoint.values()) {
+            if (endpoint.getUrl().equals(REST_PREFIX + resource)) {
+                return endpoint;
+            }
+        }
+        throw EmulatorException.notFound("Path is not supported by the emulator: " + REST_PREFIX + resource);
+    }
+
+    private static EmulatorException projectNotFound(String locator) {
+        var id = Locator.parse(locator).get("id");
+        return EmulatorException.notFound(id == null
+                ? "No project found by name or internal/external id '%s'.".formatted(locator)
+                : "No project found by locator '%s'. Project cannot be found by external id '%s'.".formatted(locator, id));
+    }
+
+    private static EmulatorException unknownDimension(String dimension) {
+        return EmulatorException.badRequest("Locator dimension '%s' is not supported".formatted(dimension));
+    }
+
+    private static EmulatorException methodNotAllowed(EmulatorRequest request) {
+        return new EmulatorException(HttpStatus.SC_METHOD_NOT_ALLOWED,
+                "Method %s is not allowed for %s".formatted(request.method(), request.path()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Автор запроса: user null - суперпользователь по токену
+     */
+    private record Caller(User user) {
+
+        boolean isSystemAdmin() {
+            return user == null || user.getRoles() != null && user.getRoles().getRole() != null
+                    && user.getRoles().getRole().stream().anyMatch(role ->
+                    SYSTEM_ADMIN.equals(role.getRoleId()) && GLOBAL_SCOPE.equals(role.getScope()));
+        }
+
+        void requireSystemAdmin() {
+            if (!isSystemAdmin()) {
+                throw EmulatorException.forbidden(
+                        "Access denied. Check the user has enough permissions to perform the operation.");
+            }
+        }
+    }
+}
@@ -10,10 +10,33 @@ import lombok.Getter;
 @AllArgsConstructor
 @Getter
 public enum Endpoint {
-    BUILD_TYPES("/app/rest/buildTypes", BuildType.class),
-    PROJECTS("/app/rest/projects", Project.class),
-    USERS("/app/rest/users", User.class);
+    BUILD_TYPES("/app/rest/buildTypes", BuildType.class, "buildType"),
+    PROJECTS("/app/rest/projects", Project.class, "project"),
+    USERS("/app/rest/users", User.class, "user");
 
     private final String url;
     private final Class<? extends BaseModel> modelClass;
+    /**
+     * Имя массива сущностей в ответе коллекции, например {"count":1,"project":[...]}
+     */
+    private final String collectionItem;
+
+    private static final Endpoint[] VALUES = values();
+
+    /**
+     * Endpoint, к которому относится путь запроса (сам url, url/... или url?...), или null
+     */
+    public static Endpoint byPath(String path) {
+        if (path == null) {
+            return null;
+        }
+        for (var endpoint : VALUES) {
+            var url = endpoint.url;
+            if (path.startsWith(url) && (path.length() == url.length()
+                    || path.charAt(url.length()) == '/' || path.charAt(url.length()) == '?')) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
 }
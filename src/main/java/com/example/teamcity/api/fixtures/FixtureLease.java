@@ -0,0 +1,78 @@
+package com.example.teamcity.api.fixtures;
+
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.models.TestData;
+import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.serialization.ModelMapper;
+
+import java.util.ArrayList;
+
+/**
+ * Выданные тесту сущности пула. Тест получает копии моделей, поэтому его изменения в модели не попадают
+ * в экземпляр, который вернется в пул.
+ */
+public final class FixtureLease {
+    private final User pooledUser;
+    private final Project pooledProject;
+    private final User user;
+    private final Project project;
+
+    FixtureLease(User pooledUser, Project pooledProject) {
+        this.pooledUser = pooledUser;
+        this.pooledProject = pooledProject;
+        this.user = copy(pooledUser, User.class);
+        this.project = copy(pooledProject, Project.class);
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * Подставляет выданные сущности в testData, в том числе проект уже сгенерированного build type.
+     * Build type, который еще не сгенерирован, получит выданный проект при генерации
+     */
+    public void applyTo(TestData testData) {
+        if (user != null) {
+            testData.setUser(user);
+        }
+        if (project != null) {
+            testData.setProject(project);
+            if (!testData.isPending(BuildType.class) && testData.getBuildType() != null) {
+                testData.getBuildType().setProject(project);
+            }
+        }
+    }
+
+    /**
+     * Выданные сущности для сообщений: user=&lt;username&gt;, project=&lt;id&gt;
+     */
+    @Override
+    public String toString() {
+        var fixtures = new ArrayList<String>();
+        if (user != null) {
+            fixtures.add("user=" + user.getUsername());
+        }
+        if (project != null) {
+            fixtures.add("project=" + project.getId());
+        }
+        return String.join(", ", fixtures);
+    }
+
+    User getPooledUser() {
+        return pooledUser;
+    }
+
+    Project getPooledProject() {
+        return pooledProject;
+    }
+
+    private static <T> T copy(T model, Class<T> type) {
+        return model == null ? null : ModelMapper.getMapper().convertValue(model, type);
+    }
+}
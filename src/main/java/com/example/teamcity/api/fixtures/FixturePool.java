@@ -0,0 +1,226 @@
+package com.example.teamcity.api.fixtures;
+
+import com.example.teamcity.api.cleanup.CleanupJournal;
+import com.example.teamcity.api.cleanup.EntityCleaner;
+import com.example.teamcity.api.concurrent.DaemonThreadFactory;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.generators.RandomData;
+import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.requests.AsyncRequestExecutor;
+import com.example.teamcity.api.requests.unchecked.UncheckedBase;
+import com.example.teamcity.api.serialization.ModelMapper;
+import com.example.teamcity.api.spec.Specifications;
+import org.apache.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static com.example.teamcity.api.generators.TestDataGenerator.generate;
+
+/**
+ * Пул заранее созданных пользователей и проектов для тестов с {@link com.example.teamcity.api.annotations.PooledFixtures}.
+ * <p>
+ * Когда свободных сущностей остается не больше fixtures.pool.lowWaterMark, фоновый поток досоздает их
+ * до fixtures.pool.size. Если пул пуст, сущность создается синхронно в потоке теста. Сущности создаются
+ * суперпользователем, в TestDataStorage теста не попадают и записываются в {@link CleanupJournal}.
+ * Чистые сущности после теста возвращаются в пул, грязные удаляются; свободные удаляются в {@link #shutdown()}.
+ * При fixtures.pool.enabled=false каждая сущность создается на тест и удаляется после него. Так же пул работает
+ * при заданном random.seed: сущности генерируются в потоке теста из его зерна, и перезапуск их воспроизводит.
+ */
+public final class FixturePool {
+    private static final boolean ENABLED = Boolean.parseBoolean(Config.getProperty("fixtures.pool.enabled", "true"))
+            && !RandomData.isSeedFixed();
+    private static final int SIZE = Config.getIntProperty("fixtures.pool.size", 10);
+    private static final int LOW_WATER_MARK = Config.getIntProperty("fixtures.pool.lowWaterMark", 3);
+    private static final long FILL_AWAIT_SECONDS = 30;
+    private static volatile FixturePool instance;
+
+    private final ExecutorService filler = Executors.newSingleThreadExecutor(new DaemonThreadFactory("fixture-filler"));
+    private final CleanupJournal journal = CleanupJournal.getInstance();
+    private final Slot<User> users = new Slot<>(Endpoint.USERS, User.class, User::getId, User::setId);
+    private final Slot<Project> projects = new Slot<>(Endpoint.PROJECTS, Project.class, Project::getId, Project::setId);
+    private volatile boolean closed;
+
+    private FixturePool() {
+        users.refillIfLow();
+        projects.refillIfLow();
+    }
+
+    /**
+     * Пул создается и начинает заполняться при первом обращении
+     */
+    public static FixturePool getInstance() {
+        if (instance == null) {
+            synchronized (FixturePool.class) {
+                if (instance == null) {
+                    instance = new FixturePool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Удаляет свободные сущности пула, если он создавался; выданные после этого удаляются при возврате
+     */
+    public static void shutdown() {
+        var pool = instance;
+        if (pool != null) {
+            pool.drain();
+        }
+    }
+
+    public FixtureLease lease(boolean user, boolean project) {
+        return new FixtureLease(user ? users.lease() : null, project ? projects.lease() : null);
+    }
+
+    /**
+     * Возвращает сущности в пул или, если тест их испортил (dirty), удаляет
+     */
+    public void release(FixtureLease lease, boolean dirty) {
+        var discarded = new EnumMap<Endpoint, List<String>>(Endpoint.class);
+        users.release(lease.getPooledUser(), dirty, discarded);
+        projects.release(lease.getPooledProject(), dirty, discarded);
+        delete(discarded);
+    }
+
+    private void drain() {
+        closed = true;
+        // Дожидаемся текущего заполнения: созданные им сущности при closed удаляются самим заполнением
+        filler.shutdown();
+        try {
+            filler.awaitTermination(FILL_AWAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        var discarded = new EnumMap<Endpoint, List<String>>(Endpoint.class);
+        users.drainTo(discarded);
+        projects.drainTo(discarded);
+        delete(discarded);
+    }
+
+    private void delete(Map<Endpoint, List<String>> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        var summaries = EntityCleaner.deleteAll(entities);
+        if (journal != null) {
+            summaries.forEach((endpoint, summary) -> journal.recordDeleted(endpoint, summary.deletedIds()));
+        }
+    }
+
+    private final class Slot<T extends BaseModel> {
+        private final Endpoint endpoint;
+        private final Class<T> type;
+        private final Function<T, String> idGetter;
+        private final BiConsumer<T, String> idSetter;
+        private final UncheckedBase request;
+        private final BlockingQueue<T> idle = new LinkedBlockingQueue<>();
+        private final AtomicBoolean filling = new AtomicBoolean();
+
+        private Slot(Endpoint endpoint, Class<T> type, Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+            this.endpoint = endpoint;
+            this.type = type;
+            this.idGetter = idGetter;
+            this.idSetter = idSetter;
+            this.request = new UncheckedBase(Specifications.superUserAuth(), endpoint);
+        }
+
+        T lease() {
+            if (!ENABLED) {
+                return create();
+            }
+            var model = idle.poll();
+            refillIfLow();
+            return model != null ? model : create();
+        }
+
+        void release(T model, boolean dirty, Map<Endpoint, List<String>> discarded) {
+            if (model == null) {
+                return;
+            }
+            if (ENABLED && !dirty) {
+                synchronized (this) {
+                    if (!closed) {
+                        idle.offer(model);
+                        return;
+                    }
+                }
+            }
+            discarded.computeIfAbsent(endpoint, key -> new ArrayList<>()).add(idGetter.apply(model));
+        }
+
+        void drainTo(Map<Endpoint, List<String>> discarded) {
+            var models = new ArrayList<T>();
+            synchronized (this) {
+                idle.drainTo(models);
+            }
+            if (!models.isEmpty()) {
+                discarded.computeIfAbsent(endpoint, key -> new ArrayList<>())
+                        .addAll(models.stream().map(idGetter).toList());
+            }
+        }
+
+        void refillIfLow() {
+            if (ENABLED && !closed && idle.size() <= LOW_WATER_MARK && filling.compareAndSet(false, true)) {
+                try {
+                    filler.execute(this::fill);
+                } catch (RejectedExecutionException e) {
+                    filling.set(false);
+                }
+            }
+        }
+
+        private void fill() {
+            try {
+                var missing = Math.max(SIZE - idle.size(), 0);
+                var result = AsyncRequestExecutor.executeAll(Collections.nCopies(missing, type), ignored -> create());
+                result.failures().values().forEach(e ->
+                        System.err.println("Cannot create pooled %s: %s".formatted(endpoint, e.getMessage())));
+                var created = result.successful();
+                synchronized (this) {
+                    if (!closed) {
+                        idle.addAll(created);
+                        return;
+                    }
+                }
+                delete(Map.of(endpoint, created.stream().map(idGetter).toList()));
+            } catch (RuntimeException e) {
+                System.err.println("Fixture pool refill failed: " + e.getMessage());
+            } finally {
+                filling.set(false);
+            }
+        }
+
+        // Модель для пула: сгенерированная (с паролем пользователя) плюс id, присвоенный сервером
+        private T create() {
+            var model = generate(type);
+            var response = request.create(model);
+            if (response.getStatusCode() != HttpStatus.SC_OK) {
+                throw new IllegalStateException("Cannot create pooled %s, status code %d: %s"
+                        .formatted(endpoint, response.getStatusCode(), response.asString()));
+            }
+            var id = idGetter.apply(ModelMapper.read(response, type));
+            idSetter.accept(model, id);
+            if (journal != null) {
+                journal.recordCreated(endpoint, id);
+            }
+            return model;
+        }
+    }
+}
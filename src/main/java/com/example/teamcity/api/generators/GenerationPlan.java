@@ -0,0 +1,122 @@
+package com.example.teamcity.api.generators;
+
+import com.example.teamcity.api.annotations.Optional;
+import com.example.teamcity.api.annotations.Parameterizable;
+import com.example.teamcity.api.annotations.Random;
+import com.example.teamcity.api.models.BaseModel;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * План генерации для класса модели: один раз разбирает поля класса (аннотации, тип, generic type списка)
+ * и хранит для них MethodHandle сеттеры. Планы кешируются per-class через {@link ClassValue},
+ * поэтому рефлексия выполняется только при первой генерации каждого класса.
+ */
+final class GenerationPlan {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final ClassValue<GenerationPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected GenerationPlan computeValue(Class<?> type) {
+            return new GenerationPlan(type);
+        }
+    };
+
+    private final MethodHandle constructor;
+    private final List<FieldPlan> fields;
+
+    private GenerationPlan(Class<?> type) {
+        try {
+            var lookup = MethodHandles.lookup();
+            var declaredConstructor = type.getDeclaredConstructor();
+            declaredConstructor.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(declaredConstructor).asType(CONSTRUCTOR_TYPE);
+
+            var fieldPlans = new ArrayList<FieldPlan>();
+            for (var field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()
+                        || field.isAnnotationPresent(Optional.class)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fieldPlans.add(new FieldPlan(
+                        field.getType(),
+                        field.isAnnotationPresent(Parameterizable.class),
+                        field.isAnnotationPresent(Random.class),
+                        kindOf(field),
+                        modelTypeOf(field),
+                        lookup.unreflectSetter(field).asType(SETTER_TYPE)));
+            }
+            this.fields = List.copyOf(fieldPlans);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot build generation plan for " + type.getName(), e);
+        }
+    }
+
+    static GenerationPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    List<FieldPlan> getFields() {
+        return fields;
+    }
+
+    Object newInstance() {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot generate test data", e);
+        }
+    }
+
+    private static FieldKind kindOf(Field field) {
+        if (BaseModel.class.isAssignableFrom(field.getType())) {
+            return FieldKind.MODEL;
+        }
+        if (List.class.isAssignableFrom(field.getType()) && field.getGenericType() instanceof ParameterizedType pt
+                && pt.getActualTypeArguments()[0] instanceof Class<?> typeClass
+                && BaseModel.class.isAssignableFrom(typeClass)) {
+            return FieldKind.MODEL_LIST;
+        }
+        return FieldKind.OTHER;
+    }
+
+    private static Class<? extends BaseModel> modelTypeOf(Field field) {
+        return switch (kindOf(field)) {
+            case MODEL -> field.getType().asSubclass(BaseModel.class);
+            case MODEL_LIST -> ((Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0])
+                    .asSubclass(BaseModel.class);
+            case OTHER -> null;
+        };
+    }
+
+    enum FieldKind {
+        MODEL,
+        MODEL_LIST,
+        OTHER
+    }
+
+    record FieldPlan(Class<?> type, boolean parameterizable, boolean random, FieldKind kind,
+                     Class<? extends BaseModel> modelType, MethodHandle setter) {
+
+        boolean isRandomString() {
+            return random && String.class.equals(type);
+        }
+
+        void set(Object instance, Object value) {
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot generate test data", e);
+            }
+        }
+    }
+}
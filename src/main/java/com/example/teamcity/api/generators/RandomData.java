@@ -1,17 +1,110 @@
 package com.example.teamcity.api.generators;
 
-import org.apache.commons.lang3.RandomStringUtils;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.models.BaseModel;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Случайные строки для тестовых данных.
+ * <p>
+ * У каждого потока свой {@link SplittableRandom}, поэтому параллельные тесты не делят один генератор. Зерно потока
+ * выводится из зерна сьюта (random.seed, без свойства - случайное) и идентификатора теста, который задается
+ * {@link #reseed(String)} перед тестом. Перезапуск с -Drandom.seed=&lt;зерно сьюта&gt; повторяет данные теста,
+ * в том числе его TestData. Потоки без теста (пулы, data provider без reseed) используют зерно от имени потока.
+ * <p>
+ * Исключение - пользователь и проект из FixturePool (@PooledFixtures): их заранее создает поток пула, и какая
+ * сущность достанется тесту, зависит от порядка выдачи. Поэтому при заданном random.seed пул отключается
+ * и сущности создаются в потоке теста из его зерна, а без random.seed их id выводятся при падении теста.
+ */
 public final class RandomData {
-    private static final String TEST_PREFIX = "test_";
+    public static final String TEST_PREFIX = "test_";
     private static final int MAX_LENGTH = 10;
+    private static final char[] LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final char[] PREFIX = TEST_PREFIX.toCharArray();
+
+    private static final String SEED_PROPERTY = Config.getProperty("random.seed");
+    private static final long SUITE_SEED = suiteSeed();
+    // Номер повтора идентификатора: тест с invocationCount получает разные данные в каждом вызове
+    private static final Map<String, AtomicInteger> OCCURRENCES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<SplittableRandom> RANDOM =
+            ThreadLocal.withInitial(() -> new SplittableRandom(seedOf("thread:" + Thread.currentThread().getName())));
+
+    private RandomData() {
+    }
 
     public static String getString() {
-        return TEST_PREFIX + RandomStringUtils.randomAlphabetic(MAX_LENGTH);
+        return randomString(MAX_LENGTH);
     }
 
     public static String getString(int length) {
-        return TEST_PREFIX + RandomStringUtils
-                .randomAlphabetic(Math.max(length - TEST_PREFIX.length(), MAX_LENGTH));
+        return randomString(Math.max(length - PREFIX.length, MAX_LENGTH));
+    }
+
+    // Строка собирается сразу в массив итоговой длины, без промежуточных StringBuilder
+    private static String randomString(int letters) {
+        var random = RANDOM.get();
+        var chars = new char[PREFIX.length + letters];
+        System.arraycopy(PREFIX, 0, chars, 0, PREFIX.length);
+        for (var i = PREFIX.length; i < chars.length; i++) {
+            chars[i] = LETTERS[random.nextInt(LETTERS.length)];
+        }
+        return new String(chars);
+    }
+
+    public static long getSuiteSeed() {
+        return SUITE_SEED;
+    }
+
+    /**
+     * Переключает генератор текущего потока на последовательность теста id
+     */
+    public static void reseed(String id) {
+        var occurrence = OCCURRENCES.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+        RANDOM.set(new SplittableRandom(seedOf(occurrence == 1 ? id : id + "#" + occurrence)));
+    }
+
+    /**
+     * Идентификатор вызова теста: метод и значения параметров data provider. Параметры без однозначного
+     * строкового представления (лямбды, спецификации) заменяются на "_", чтобы идентификатор не зависел от JVM
+     */
+    public static String testId(Method method, Object[] parameters) {
+        var id = new StringBuilder(method.getDeclaringClass().getName()).append('.').append(method.getName());
+        if (parameters != null && parameters.length > 0) {
+            id.append('(');
+            for (var i = 0; i < parameters.length; i++) {
+                var parameter = parameters[i];
+                id.append(i == 0 ? "" : ", ").append(parameter == null || parameter instanceof CharSequence
+                        || parameter instanceof Number || parameter instanceof Boolean || parameter instanceof Enum<?>
+                        || parameter instanceof BaseModel ? String.valueOf(parameter) : "_");
+            }
+            id.append(')');
+        }
+        return id.toString();
+    }
+
+    /**
+     * true, если зерно сьюта задано свойством random.seed (перезапуск), а не выбрано случайно
+     */
+    public static boolean isSeedFixed() {
+        return SEED_PROPERTY != null && !SEED_PROPERTY.isBlank();
+    }
+
+    private static long suiteSeed() {
+        return isSeedFixed() ? Long.parseLong(SEED_PROPERTY.trim()) : ThreadLocalRandom.current().nextLong();
+    }
+
+    // FNV-1a от id, смешанный с зерном сьюта; String.hashCode дал бы лишь 32 бита
+    private static long seedOf(String id) {
+        var hash = 0xcbf29ce484222325L;
+        for (var i = 0; i < id.length(); i++) {
+            hash = (hash ^ id.charAt(i)) * 0x100000001b3L;
+        }
+        return hash ^ SUITE_SEED;
     }
 }
@@ -1,19 +1,20 @@
 package com.example.teamcity.api.generators;
 
-import com.example.teamcity.api.annotations.Optional;
-import com.example.teamcity.api.annotations.Parameterizable;
-import com.example.teamcity.api.annotations.Random;
 import com.example.teamcity.api.models.BaseModel;
 import com.example.teamcity.api.models.TestData;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public final class TestDataGenerator {
+    // Для каждого поля TestData - предыдущие поля, сущности которых модель поля может переиспользовать
+    private static final Map<Class<?>, List<Class<? extends BaseModel>>> TEST_DATA_REFERENCES = testDataReferences();
 
     private TestDataGenerator() {
     }
@@ -21,6 +22,9 @@ public final class TestDataGenerator {
     /**
      * Основной метод генерации тестовых данных.
      * <p>
+     * Разбор полей класса выполняется один раз и кешируется в {@link GenerationPlan}, значения устанавливаются
+     * через MethodHandle сеттеры.
+     * <p>
      * Если у поля аннотация Optional, оно пропускается, иначе:
      * <p>
      * 1) если у поля аннотация Parameterizable, и в метод были переданы параметры, то поочередно (по мере встречи полей с
@@ -45,42 +49,36 @@ public final class TestDataGenerator {
      */
     public static <T extends BaseModel> T generate(List<BaseModel> generatedModels, Class<T> generatorClass,
                                                    Object... parameters) {
-        try {
-            var instance = generatorClass.getDeclaredConstructor().newInstance();
-            for (var field : generatorClass.getDeclaredFields()) {
-                field.setAccessible(true);
-                if (!field.isAnnotationPresent(Optional.class)) {
-                    var generatedClass = generatedModels.stream().filter(m
-                            -> m.getClass().equals(field.getType())).findFirst();
-                    if (field.isAnnotationPresent(Parameterizable.class) && parameters.length > 0) {
-                        field.set(instance, parameters[0]);
-                        parameters = Arrays.copyOfRange(parameters, 1, parameters.length);
-                    } else if (field.isAnnotationPresent(Random.class)) {
-                        if (String.class.equals(field.getType())) {
-                            field.set(instance, RandomData.getString());
-                        }
-                    } else if (BaseModel.class.isAssignableFrom(field.getType())) {
-                        var finalParameters = parameters;
-                        field.set(instance, generatedClass.orElseGet(() -> generate(
-                                generatedModels, field.getType().asSubclass(BaseModel.class), finalParameters)));
-                    } else if (List.class.isAssignableFrom(field.getType())) {
-                        if (field.getGenericType() instanceof ParameterizedType pt) {
-                            var typeClass = (Class<?>) pt.getActualTypeArguments()[0];
-                            if (BaseModel.class.isAssignableFrom(typeClass)) {
-                                var finalParameters = parameters;
-                                field.set(instance, generatedClass.map(List::of).orElseGet(() -> List.of(generate(
-                                        generatedModels, typeClass.asSubclass(BaseModel.class), finalParameters))));
-                            }
-                        }
-                    }
+        var plan = GenerationPlan.of(generatorClass);
+        var instance = generatorClass.cast(plan.newInstance());
+        for (var field : plan.getFields()) {
+            if (field.parameterizable() && parameters.length > 0) {
+                field.set(instance, parameters[0]);
+                parameters = Arrays.copyOfRange(parameters, 1, parameters.length);
+            } else if (field.random()) {
+                if (field.isRandomString()) {
+                    field.set(instance, RandomData.getString());
                 }
-                field.setAccessible(false);
+            } else if (field.kind() == GenerationPlan.FieldKind.MODEL) {
+                var generatedModel = findGenerated(generatedModels, field.type());
+                field.set(instance, generatedModel != null
+                        ? generatedModel : generate(generatedModels, field.modelType(), parameters));
+            } else if (field.kind() == GenerationPlan.FieldKind.MODEL_LIST) {
+                var generatedModel = findGenerated(generatedModels, field.type());
+                field.set(instance, List.of(generatedModel != null
+                        ? generatedModel : generate(generatedModels, field.modelType(), parameters)));
+            }
+        }
+        return instance;
+    }
+
+    private static BaseModel findGenerated(List<BaseModel> generatedModels, Class<?> type) {
+        for (var model : generatedModels) {
+            if (model.getClass().equals(type)) {
+                return model;
             }
-            return instance;
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException
-                 | NoSuchMethodException e) {
-            throw new IllegalStateException("Cannot generate test data", e);
         }
+        return null;
     }
 
     // Метод, чтобы сгенерировать одну сущность. Передает пустой параметр generatedModels
@@ -88,24 +86,50 @@ public final class TestDataGenerator {
         return generate(Collections.emptyList(), generatorClass, parameters);
     }
 
+    /**
+     * Ленивые тестовые данные: поле TestData генерируется при первом обращении, см. {@link TestData}
+     */
     public static TestData generate() {
-        // Идем по всем полям TestData и для каждого, кто наследник BaseModel вызывыем generate() c передачей уже сгенерированных сущностей
-        try {
-            var instance = TestData.class.getDeclaredConstructor().newInstance();
-            var generatedModels = new ArrayList<BaseModel>();
-            for (var field : TestData.class.getDeclaredFields()) {
-                field.setAccessible(true);
-                if (BaseModel.class.isAssignableFrom(field.getType())) {
-                    var generatedModel = generate(generatedModels, field.getType().asSubclass(BaseModel.class));
-                    field.set(instance, generatedModel);
-                    generatedModels.add(generatedModel);
-                }
-                field.setAccessible(false);
+        return new TestData(TestDataGenerator::generateField);
+    }
+
+    // При генерации всех полей TestData по порядку каждое поле получало в generatedModels сущности предыдущих полей.
+    // Лениво передаются только те из них, которые модель поля может подставить, чтобы не генерировать лишнего
+    private static BaseModel generateField(Class<? extends BaseModel> type, TestData testData) {
+        var references = TEST_DATA_REFERENCES.getOrDefault(type, List.of());
+        var generatedModels = new ArrayList<BaseModel>(references.size());
+        for (var reference : references) {
+            var model = testData.get(reference);
+            if (model != null) {
+                generatedModels.add(model);
+            }
+        }
+        return generate(generatedModels, type);
+    }
+
+    private static Map<Class<?>, List<Class<? extends BaseModel>>> testDataReferences() {
+        var references = new HashMap<Class<?>, List<Class<? extends BaseModel>>>();
+        var previousFields = new ArrayList<Class<? extends BaseModel>>();
+        for (var field : GenerationPlan.of(TestData.class).getFields()) {
+            if (field.kind() == GenerationPlan.FieldKind.MODEL) {
+                var reachable = new HashSet<Class<?>>();
+                collectModelTypes(field.modelType(), reachable);
+                references.put(field.modelType(), previousFields.stream().filter(reachable::contains).toList());
+                previousFields.add(field.modelType());
+            }
+        }
+        return Map.copyOf(references);
+    }
+
+    // Модели, которые generate проходит при генерации type (поля Random и Optional не генерируются)
+    private static void collectModelTypes(Class<? extends BaseModel> type, Set<Class<?>> modelTypes) {
+        if (!modelTypes.add(type)) {
+            return;
+        }
+        for (var field : GenerationPlan.of(type).getFields()) {
+            if (!field.random() && field.kind() != GenerationPlan.FieldKind.OTHER) {
+                collectModelTypes(field.modelType(), modelTypes);
             }
-            return instance;
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                 NoSuchMethodException e) {
-            throw new IllegalStateException("Cannot generate test data", e);
         }
     }
 }
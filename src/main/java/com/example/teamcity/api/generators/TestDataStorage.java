@@ -1,36 +1,72 @@
 package com.example.teamcity.api.generators;
 
+import com.example.teamcity.api.cleanup.CleanupJournal;
+import com.example.teamcity.api.cleanup.EntityCleaner;
+import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.enums.Endpoint;
 import com.example.teamcity.api.models.BaseModel;
-import com.example.teamcity.api.requests.unchecked.UncheckedBase;
-import com.example.teamcity.api.spec.Specifications;
 
-import java.util.EnumMap;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Хранилище созданных в рамках теста сущностей для последующего удаления.
+ * <p>
+ * Хранилище привязано к потоку: при parallel="methods" TestNG выполняет BeforeMethod, тест и AfterMethod одного
+ * вызова в одном потоке, поэтому BaseTest.afterTest удаляет только то, что создал текущий тест. Если сущности
+ * создаются из других потоков (пулы, CompletableFuture), хранилище нужно получить в потоке теста и передать явно.
+ * Созданные и удаленные сущности дублируются в {@link CleanupJournal}, чтобы пережить аварийное завершение JVM.
+ * <p>
+ * Асинхронные запросы регистрируются через {@link #track(CompletableFuture)}: перед удалением хранилище ждет
+ * их завершения. Сущность, добавленная в уже очищенное хранилище, сразу удаляется, а добавление завершается ошибкой.
+ */
 public class TestDataStorage {
-    private static TestDataStorage testDataStorage;
-    private final EnumMap<Endpoint, Set<String>> createdEntitiesMap;
+    private static final ThreadLocal<TestDataStorage> TEST_DATA_STORAGE = ThreadLocal.withInitial(TestDataStorage::new);
+    private final Map<Endpoint, Set<String>> createdEntitiesMap;
+    private static final int PENDING_AWAIT_MS = Config.getIntProperty("cleanup.timeoutMs", 10_000);
+    private final CleanupJournal journal = CleanupJournal.getInstance();
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    private boolean closed;
 
     private TestDataStorage() {
-        createdEntitiesMap = new EnumMap<>(Endpoint.class);
+        createdEntitiesMap = new ConcurrentHashMap<>();
     }
 
-    ;
-
     public static TestDataStorage getStorage() {
-        if (testDataStorage == null) {
-            testDataStorage = new TestDataStorage();
-        }
-        return testDataStorage;
+        return TEST_DATA_STORAGE.get();
     }
 
     private void addCreatedEntity(Endpoint endpoint, String id) {
-        if (id != null) {
-            createdEntitiesMap.computeIfAbsent(endpoint, key -> new HashSet<>()).add(id);
+        if (id == null) {
+            return;
         }
+        synchronized (this) {
+            if (!closed) {
+                if (createdEntitiesMap.computeIfAbsent(endpoint, key -> ConcurrentHashMap.newKeySet()).add(id)
+                        && journal != null) {
+                    journal.recordCreated(endpoint, id);
+                }
+                return;
+            }
+        }
+        EntityCleaner.deleteAll(Map.of(endpoint, List.of(id)));
+        throw new IllegalStateException("%s %s was created after its test data was deleted".formatted(endpoint, id));
+    }
+
+    /**
+     * Регистрирует асинхронную операцию, которая может добавить сущности в хранилище после своего завершения
+     */
+    public <F extends CompletableFuture<?>> F track(F future) {
+        pending.add(future);
+        future.whenComplete((result, error) -> pending.remove(future));
+        return future;
     }
 
     private String getEntityIdOrLocator(BaseModel model) {
@@ -57,15 +93,49 @@ public class TestDataStorage {
         addCreatedEntity(endpoint, getEntityIdOrLocator(model));
     }
 
-    public void deleteCreatedEntities() {
-        createdEntitiesMap.forEach(((endpoint, ids) ->
-                        ids.forEach(id ->
-                                new UncheckedBase(Specifications.superUserAuth(), endpoint).delete(id)
-                        )
-                )
-
-        );
+    /**
+     * Снимает с учета сущность, которую тест уже удалил сам, чтобы после теста она не удалялась повторно
+     */
+    public void removeDeletedEntity(Endpoint endpoint, String id) {
+        var ids = createdEntitiesMap.get(endpoint);
+        if (ids != null && ids.remove(id) && journal != null) {
+            journal.recordDeleted(endpoint, List.of(id));
+        }
+    }
 
+    /**
+     * Дожидается асинхронных операций, удаляет созданные сущности и закрывает хранилище. Если это хранилище
+     * текущего потока, следующий тест потока получит новое
+     */
+    public void deleteCreatedEntities() {
+        awaitPending();
+        synchronized (this) {
+            closed = true;
+        }
+        var summaries = EntityCleaner.deleteAll(createdEntitiesMap);
+        if (journal != null) {
+            summaries.forEach((endpoint, summary) -> journal.recordDeleted(endpoint, summary.deletedIds()));
+        }
         createdEntitiesMap.clear();
+        if (TEST_DATA_STORAGE.get() == this) {
+            TEST_DATA_STORAGE.remove();
+        }
+    }
+
+    private void awaitPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .get(PENDING_AWAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Ошибку запроса получает сам тест из своего future
+        } catch (TimeoutException e) {
+            System.err.println("Async requests did not finish in %d ms before test data deletion"
+                    .formatted(PENDING_AWAIT_MS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
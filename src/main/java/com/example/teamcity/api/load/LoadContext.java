@@ -0,0 +1,34 @@
+package com.example.teamcity.api.load;
+
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.requests.CheckedRequests;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Состояние одного потока нагрузки, доступное сценариям: проверяемые запросы, общий проект прогона
+ * и id build types, созданных этим потоком. Контекст не разделяется между потоками.
+ */
+public final class LoadContext {
+    private final CheckedRequests requests;
+    private final Project project;
+    private final Deque<String> buildTypeIds = new ArrayDeque<>();
+
+    LoadContext(CheckedRequests requests, Project project) {
+        this.requests = requests;
+        this.project = project;
+    }
+
+    public CheckedRequests getRequests() {
+        return requests;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    public Deque<String> getBuildTypeIds() {
+        return buildTypeIds;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.teamcity.api.load;
+
+import com.example.teamcity.api.config.Config;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Модель нагрузки.
+ * <p>
+ * CLOSED - threads потоков выполняют сценарии друг за другом без пауз, пропускная способность определяется
+ * временем ответа. OPEN - запросы поступают с постоянной частотой ratePerSecond независимо от ответов,
+ * threads ограничивает число одновременных запросов; задержка считается от запланированного момента запроса,
+ * поэтому время ожидания свободного потока тоже попадает в гистограмму. Результаты за warmup не учитываются.
+ */
+public record LoadProfile(Model model, int threads, Duration duration, Duration warmup, double ratePerSecond) {
+
+    public enum Model {
+        CLOSED, OPEN
+    }
+
+    public LoadProfile {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Load threads must be positive: " + threads);
+        }
+        if (model == Model.OPEN && ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Open load model requires positive ratePerSecond: " + ratePerSecond);
+        }
+    }
+
+    public static LoadProfile closed(int threads, Duration duration, Duration warmup) {
+        return new LoadProfile(Model.CLOSED, threads, duration, warmup, 0);
+    }
+
+    public static LoadProfile open(double ratePerSecond, int maxConcurrency, Duration duration, Duration warmup) {
+        return new LoadProfile(Model.OPEN, maxConcurrency, duration, warmup, ratePerSecond);
+    }
+
+    /**
+     * Профиль из свойств load.* (см. config.properties)
+     */
+    public static LoadProfile fromConfig() {
+        return new LoadProfile(
+                Model.valueOf(Config.getProperty("load.model", "closed").trim().toUpperCase(Locale.ROOT)),
+                Config.getIntProperty("load.threads", 8),
+                Duration.ofSeconds(Config.getIntProperty("load.durationSeconds", 60)),
+                Duration.ofSeconds(Config.getIntProperty("load.warmupSeconds", 5)),
+                Double.parseDouble(Config.getProperty("load.ratePerSecond", "50")));
+    }
+
+    @Override
+    public String toString() {
+        return model == Model.OPEN
+                ? "open model, %.1f req/s, max %d concurrent, %d s (+%d s warmup)"
+                .formatted(ratePerSecond, threads, duration.toSeconds(), warmup.toSeconds())
+                : "closed model, %d threads, %d s (+%d s warmup)"
+                .formatted(threads, duration.toSeconds(), warmup.toSeconds());
+    }
+}
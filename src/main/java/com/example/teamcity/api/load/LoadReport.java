@@ -0,0 +1,64 @@
+package com.example.teamcity.api.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Итог нагрузочного прогона: по строке на пару endpoint + verb и общая строка total.
+ * Перцентили и максимум в миллисекундах, throughput - успешных запросов в секунду за измеряемый интервал.
+ */
+public record LoadReport(LoadProfile profile, long measuredNanos, List<Row> rows, Row total) {
+
+    public record Row(String operation, long count, long errors, double throughput,
+                      double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+        static Row of(String operation, Histogram histogram, long errors, long measuredNanos) {
+            var seconds = measuredNanos / 1e9;
+            return new Row(operation, histogram.getTotalCount(), errors,
+                    seconds > 0 ? histogram.getTotalCount() / seconds : 0,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            return "%-22s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f"
+                    .formatted(operation, count, errors, throughput, p50Millis, p99Millis, p999Millis, maxMillis);
+        }
+    }
+
+    /**
+     * @param histograms задержки успешных запросов в микросекундах по операциям
+     */
+    static LoadReport of(LoadProfile profile, long measuredNanos, Map<String, Histogram> histograms,
+                         Map<String, Long> errors) {
+        var rows = new ArrayList<Row>();
+        var all = new Histogram(3);
+        var allErrors = 0L;
+        for (var entry : histograms.entrySet()) {
+            var operationErrors = errors.getOrDefault(entry.getKey(), 0L);
+            rows.add(Row.of(entry.getKey(), entry.getValue(), operationErrors, measuredNanos));
+            all.add(entry.getValue());
+            allErrors += operationErrors;
+        }
+        return new LoadReport(profile, measuredNanos, List.copyOf(rows), Row.of("total", all, allErrors, measuredNanos));
+    }
+
+    @Override
+    public String toString() {
+        var report = new StringBuilder("Load report: %s, measured %d ms%n"
+                .formatted(profile, TimeUnit.NANOSECONDS.toMillis(measuredNanos)));
+        report.append("%-22s %9s %7s %10s %9s %9s %9s %9s%n"
+                .formatted("operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        rows.forEach(row -> report.append(row).append(System.lineSeparator()));
+        return report.append(total).toString();
+    }
+}
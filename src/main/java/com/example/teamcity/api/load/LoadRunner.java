@@ -0,0 +1,182 @@
+package com.example.teamcity.api.load;
+
+import com.example.teamcity.api.concurrent.DaemonThreadFactory;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.generators.TestDataStorage;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.requests.CheckedRequests;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.example.teamcity.api.generators.TestDataGenerator.generate;
+
+/**
+ * Нагрузочный режим: потоки нагрузки выполняют взвешенные сценарии {@link LoadScenario} по профилю
+ * {@link LoadProfile}, задержки успешных запросов пишутся в HdrHistogram (микросекунды) по парам endpoint + verb.
+ * <p>
+ * У каждого потока свои гистограммы, они объединяются после прогона, поэтому запись не требует синхронизации.
+ * Запросы идут через CheckedRequests суперпользователя, то есть через те же спецификации, фильтры и пул
+ * соединений, что и в функциональных тестах. Проект прогона создается в вызывающем потоке и удаляется в конце,
+ * сущности потоков нагрузки удаляются из их TestDataStorage при завершении потока.
+ */
+public final class LoadRunner {
+    private static final String DEFAULT_SCENARIOS = "project-read:70,build-type-create:20,build-type-delete:10";
+
+    private final List<LoadScenario> scenarios;
+    private final LoadProfile profile;
+    private final int[] cumulativeWeights;
+
+    public LoadRunner(List<LoadScenario> scenarios, LoadProfile profile) {
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No load scenarios");
+        }
+        this.scenarios = List.copyOf(scenarios);
+        this.profile = profile;
+        this.cumulativeWeights = new int[scenarios.size()];
+        var sum = 0;
+        for (var i = 0; i < scenarios.size(); i++) {
+            sum += scenarios.get(i).weight();
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    /**
+     * Сценарии из load.scenarios и профиль из load.* свойств
+     */
+    public static LoadRunner fromConfig() {
+        return new LoadRunner(LoadScenarios.parse(Config.getProperty("load.scenarios", DEFAULT_SCENARIOS)),
+                LoadProfile.fromConfig());
+    }
+
+    public LoadReport run() {
+        var requests = CheckedRequests.forSuperUser();
+        var storage = TestDataStorage.getStorage();
+        var executor = Executors.newFixedThreadPool(profile.threads(), new DaemonThreadFactory("load-worker"));
+        try {
+            var project = requests.<Project>getRequest(Endpoint.PROJECTS).create(generate(Project.class));
+            var start = System.nanoTime();
+            var measureStart = start + profile.warmup().toNanos();
+            var end = measureStart + profile.duration().toNanos();
+            var arrivals = new AtomicLong(start);
+
+            var futures = new ArrayList<Future<Worker>>(profile.threads());
+            for (var i = 0; i < profile.threads(); i++) {
+                futures.add(executor.submit(new Worker(new LoadContext(requests, project), arrivals, measureStart, end)));
+            }
+            var histograms = new LinkedHashMap<String, Histogram>();
+            var errors = new LinkedHashMap<String, Long>();
+            for (var future : futures) {
+                var worker = future.get();
+                for (var i = 0; i < scenarios.size(); i++) {
+                    var operation = scenarios.get(i).operation();
+                    histograms.computeIfAbsent(operation, key -> new Histogram(3)).add(worker.histograms[i]);
+                    errors.merge(operation, worker.errors[i], Long::sum);
+                }
+            }
+            // При перегрузке открытой модели запланированные до end запросы выполняются после него
+            var measuredNanos = Math.max(System.nanoTime(), end) - measureStart;
+            return LoadReport.of(profile, measuredNanos, histograms, errors);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load run was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            storage.deleteCreatedEntities();
+        }
+    }
+
+    private int pickScenario() {
+        var value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        var index = Arrays.binarySearch(cumulativeWeights, value + 1);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private final class Worker implements Callable<Worker> {
+        private final LoadContext context;
+        private final AtomicLong arrivals;
+        private final long measureStart;
+        private final long end;
+        private final long arrivalIntervalNanos;
+        private final Histogram[] histograms = new Histogram[scenarios.size()];
+        private final long[] errors = new long[scenarios.size()];
+        private final boolean[] errorLogged = new boolean[scenarios.size()];
+
+        private Worker(LoadContext context, AtomicLong arrivals, long measureStart, long end) {
+            this.context = context;
+            this.arrivals = arrivals;
+            this.measureStart = measureStart;
+            this.end = end;
+            this.arrivalIntervalNanos = profile.model() == LoadProfile.Model.OPEN
+                    ? (long) (TimeUnit.SECONDS.toNanos(1) / profile.ratePerSecond()) : 0;
+            Arrays.setAll(histograms, i -> new Histogram(3));
+        }
+
+        @Override
+        public Worker call() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    var scheduled = nextStart();
+                    if (scheduled >= end) {
+                        break;
+                    }
+                    execute(pickScenario(), scheduled);
+                }
+            } finally {
+                // Созданное этим потоком и не удаленное сценариями
+                TestDataStorage.getStorage().deleteCreatedEntities();
+            }
+            return this;
+        }
+
+        // Открытая модель: следующий слот общего расписания, поток ждет его наступления
+        private long nextStart() {
+            if (arrivalIntervalNanos == 0) {
+                return System.nanoTime();
+            }
+            var scheduled = arrivals.getAndAdd(arrivalIntervalNanos);
+            var wait = Math.min(scheduled, end) - System.nanoTime();
+            while (wait > 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(wait);
+                wait = Math.min(scheduled, end) - System.nanoTime();
+            }
+            return scheduled;
+        }
+
+        private void execute(int index, long scheduled) {
+            var scenario = scenarios.get(index);
+            // Ожидание свободного потока в открытой модели входит в задержку, prepare - нет
+            var queueNanos = System.nanoTime() - scheduled;
+            try {
+                scenario.prepare().accept(context);
+                var started = System.nanoTime();
+                scenario.action().accept(context);
+                if (scheduled >= measureStart) {
+                    histograms[index].recordValue(TimeUnit.NANOSECONDS.toMicros(queueNanos + System.nanoTime() - started));
+                }
+            } catch (RuntimeException | AssertionError e) {
+                if (!errorLogged[index]) {
+                    errorLogged[index] = true;
+                    System.err.println("Load scenario %s failed: %s".formatted(scenario.name(), e.getMessage()));
+                }
+                if (scheduled >= measureStart) {
+                    errors[index]++;
+                }
+            }
+        }
+    }
+}
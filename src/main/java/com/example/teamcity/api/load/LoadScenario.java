@@ -0,0 +1,38 @@
+package com.example.teamcity.api.load;
+
+import com.example.teamcity.api.enums.Endpoint;
+import io.restassured.http.Method;
+
+import java.util.function.Consumer;
+
+/**
+ * Сценарий нагрузки: действие над эндпоинтом, которое выбирается с вероятностью weight / (сумма весов).
+ * Время action записывается в гистограмму пары endpoint + verb, prepare выполняется перед ним без замера
+ * (например, создание сущности для сценария удаления).
+ */
+public record LoadScenario(String name, Endpoint endpoint, Method verb, int weight,
+                           Consumer<LoadContext> prepare, Consumer<LoadContext> action) {
+
+    public LoadScenario {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight of load scenario %s must be positive: %d".formatted(name, weight));
+        }
+    }
+
+    public static LoadScenario of(String name, Endpoint endpoint, Method verb, int weight,
+                                  Consumer<LoadContext> action) {
+        return new LoadScenario(name, endpoint, verb, weight, context -> {
+        }, action);
+    }
+
+    public LoadScenario withWeight(int weight) {
+        return new LoadScenario(name, endpoint, verb, weight, prepare, action);
+    }
+
+    /**
+     * Ключ гистограммы, например "PROJECTS GET"
+     */
+    public String operation() {
+        return endpoint + " " + verb;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.teamcity.api.load;
+
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.models.BuildType;
+import io.restassured.http.Method;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static com.example.teamcity.api.generators.TestDataGenerator.generate;
+
+/**
+ * Готовые сценарии нагрузки поверх CheckedRequests и их разбор из строки вида
+ * "project-read:70,build-type-create:20,build-type-delete:10" (свойство load.scenarios)
+ */
+public final class LoadScenarios {
+    private static final Map<String, IntFunction<LoadScenario>> SCENARIOS = Map.of(
+            "project-read", LoadScenarios::projectRead,
+            "build-type-create", LoadScenarios::buildTypeCreate,
+            "build-type-read", LoadScenarios::buildTypeRead,
+            "build-type-delete", LoadScenarios::buildTypeDelete);
+
+    private LoadScenarios() {
+    }
+
+    public static LoadScenario projectRead(int weight) {
+        return LoadScenario.of("project-read", Endpoint.PROJECTS, Method.GET, weight, context ->
+                context.getRequests().getRequest(Endpoint.PROJECTS).read("id:" + context.getProject().getId()));
+    }
+
+    public static LoadScenario buildTypeCreate(int weight) {
+        return LoadScenario.of("build-type-create", Endpoint.BUILD_TYPES, Method.POST, weight,
+                LoadScenarios::createBuildType);
+    }
+
+    public static LoadScenario buildTypeRead(int weight) {
+        return new LoadScenario("build-type-read", Endpoint.BUILD_TYPES, Method.GET, weight,
+                LoadScenarios::ensureBuildType,
+                context -> context.getRequests().getRequest(Endpoint.BUILD_TYPES)
+                        .read("id:" + context.getBuildTypeIds().peekLast()));
+    }
+
+    /**
+     * Удаляет последний созданный потоком build type; если его нет, он создается в prepare без замера
+     */
+    public static LoadScenario buildTypeDelete(int weight) {
+        return new LoadScenario("build-type-delete", Endpoint.BUILD_TYPES, Method.DELETE, weight,
+                LoadScenarios::ensureBuildType,
+                context -> context.getRequests().getRequest(Endpoint.BUILD_TYPES)
+                        .delete("id:" + context.getBuildTypeIds().pollLast()));
+    }
+
+    public static List<LoadScenario> parse(String scenarios) {
+        var result = new ArrayList<LoadScenario>();
+        for (var entry : scenarios.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            var parts = entry.trim().split(":");
+            var factory = SCENARIOS.get(parts[0].trim());
+            if (factory == null || parts.length > 2) {
+                throw new IllegalArgumentException("Unknown load scenario '%s', expected name[:weight] with name one of %s"
+                        .formatted(entry.trim(), SCENARIOS.keySet()));
+            }
+            result.add(factory.apply(parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 1));
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No load scenarios in '%s'".formatted(scenarios));
+        }
+        return result;
+    }
+
+    private static void ensureBuildType(LoadContext context) {
+        if (context.getBuildTypeIds().isEmpty()) {
+            createBuildType(context);
+        }
+    }
+
+    private static void createBuildType(LoadContext context) {
+        var buildType = generate(List.<BaseModel>of(context.getProject()), BuildType.class);
+        var created = context.getRequests().<BuildType>getRequest(Endpoint.BUILD_TYPES).create(buildType);
+        context.getBuildTypeIds().addLast(created.getId());
+    }
+}
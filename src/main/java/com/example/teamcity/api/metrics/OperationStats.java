@@ -0,0 +1,31 @@
+package com.example.teamcity.api.metrics;
+
+import org.HdrHistogram.AtomicHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики одной пары endpoint + verb. Все поля создаются в конструкторе, запись только атомарно
+ * увеличивает уже выделенные счетчики: без блокировок и без выделения памяти.
+ */
+final class OperationStats {
+    static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+    // Индекс 0 - запрос завершился исключением без ответа
+    static final int STATUS_CODES = 600;
+
+    final AtomicHistogram total = new AtomicHistogram(1, HIGHEST_MICROS, 3);
+    final AtomicHistogram transport = new AtomicHistogram(1, HIGHEST_MICROS, 3);
+    final LongAdder bytesOut = new LongAdder();
+    final LongAdder bytesIn = new LongAdder();
+    final AtomicLongArray statusCodes = new AtomicLongArray(STATUS_CODES);
+
+    static void record(AtomicHistogram histogram, long nanos) {
+        histogram.recordValue(Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_MICROS)));
+    }
+
+    void recordStatus(int statusCode) {
+        statusCodes.incrementAndGet(statusCode > 0 && statusCode < STATUS_CODES ? statusCode : 0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.teamcity.api.metrics;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+import io.qameta.allure.Allure;
+import io.restassured.http.Method;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Метрики запросов по парам {@link Endpoint} + HTTP метод: гистограммы задержек, байты запросов и ответов,
+ * количество ответов по статус кодам. Запросы вне Endpoint учитываются как OTHER.
+ * <p>
+ * Счетчики пары создаются при первом запросе к ней, дальше запись из {@link RequestMetricsFilter} идет
+ * без блокировок и выделения памяти. В конце сьюта {@link #export()} пишет сводку в metrics.dir
+ * (request-metrics.json и request-metrics.csv) и прикладывает ее к Allure отчету.
+ */
+public final class RequestMetrics {
+    private static final boolean ENABLED = Boolean.parseBoolean(Config.getProperty("metrics.enabled", "true"));
+    private static final Path DIRECTORY = Path.of(Config.getProperty("metrics.dir", "target/request-metrics"));
+    private static final Endpoint[] ENDPOINTS = Endpoint.values();
+    private static final Method[] VERBS = Method.values();
+    private static final AtomicReferenceArray<OperationStats> STATS =
+            new AtomicReferenceArray<>((ENDPOINTS.length + 1) * VERBS.length);
+
+    private RequestMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Индекс пары endpoint + verb или -1 для неизвестного метода. Endpoint определяется по префиксу пути.
+     */
+    static int operationIndex(String method, String path) {
+        var verb = -1;
+        for (var i = 0; i < VERBS.length; i++) {
+            if (VERBS[i].name().equalsIgnoreCase(method)) {
+                verb = i;
+                break;
+            }
+        }
+        if (verb < 0) {
+            return -1;
+        }
+        var endpoint = Endpoint.byPath(path);
+        return (endpoint == null ? ENDPOINTS.length : endpoint.ordinal()) * VERBS.length + verb;
+    }
+
+    static OperationStats stats(int operation) {
+        var stats = STATS.get(operation);
+        if (stats == null) {
+            STATS.compareAndSet(operation, null, new OperationStats());
+            stats = STATS.get(operation);
+        }
+        return stats;
+    }
+
+    /**
+     * Снимок текущих значений; счетчики при этом не сбрасываются
+     */
+    public static RequestMetricsReport snapshot() {
+        var rows = new ArrayList<RequestMetricsReport.Row>();
+        for (var operation = 0; operation < STATS.length(); operation++) {
+            var stats = STATS.get(operation);
+            if (stats != null) {
+                var endpoint = operation / VERBS.length;
+                rows.add(RequestMetricsReport.Row.of(endpoint < ENDPOINTS.length ? ENDPOINTS[endpoint].name() : "OTHER",
+                        VERBS[operation % VERBS.length].name(), stats));
+            }
+        }
+        return new RequestMetricsReport(rows);
+    }
+
+    public static void reset() {
+        for (var operation = 0; operation < STATS.length(); operation++) {
+            STATS.set(operation, null);
+        }
+    }
+
+    /**
+     * Пишет сводку в JSON и CSV и прикладывает ее к Allure; ошибки записи логируются и не пробрасываются
+     */
+    public static void export() {
+        if (!ENABLED) {
+            return;
+        }
+        var report = snapshot();
+        if (report.rows().isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(DIRECTORY);
+            Files.writeString(DIRECTORY.resolve("request-metrics.json"), report.toJson());
+            Files.writeString(DIRECTORY.resolve("request-metrics.csv"), report.toCsv());
+        } catch (IOException e) {
+            System.err.println("Cannot write request metrics to %s: %s".formatted(DIRECTORY, e.getMessage()));
+        }
+        Allure.addAttachment("Request metrics", "text/plain", report.toString(), "txt");
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.teamcity.api.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Фильтр метрик {@link RequestMetrics}. Ставится дважды: {@link #total()} первым фильтром спецификации
+ * (время всей цепочки), {@link #transport()} последним перед отправкой запроса (время сервера и сети,
+ * байты и статус код ответа).
+ */
+public final class RequestMetricsFilter implements Filter {
+    private static final RequestMetricsFilter TOTAL = new RequestMetricsFilter(false);
+    private static final RequestMetricsFilter TRANSPORT = new RequestMetricsFilter(true);
+
+    private final boolean transport;
+
+    private RequestMetricsFilter(boolean transport) {
+        this.transport = transport;
+    }
+
+    public static RequestMetricsFilter total() {
+        return TOTAL;
+    }
+
+    public static RequestMetricsFilter transport() {
+        return TRANSPORT;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        var operation = RequestMetrics.operationIndex(requestSpec.getMethod(), requestSpec.getUserDefinedPath());
+        if (operation < 0) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        var start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            if (transport) {
+                // Тело дочитывается здесь, чтобы в задержку вошло время передачи ответа
+                response.asByteArray();
+            }
+            return response;
+        } finally {
+            var nanos = System.nanoTime() - start;
+            var stats = RequestMetrics.stats(operation);
+            if (transport) {
+                OperationStats.record(stats.transport, nanos);
+                stats.bytesOut.add(bodyBytes(requestSpec.getBody()));
+                stats.recordStatus(response == null ? 0 : response.getStatusCode());
+                if (response != null) {
+                    stats.bytesIn.add(response.asByteArray().length);
+                }
+            } else {
+                OperationStats.record(stats.total, nanos);
+            }
+        }
+    }
+
+    // Длина тела в UTF-8 без кодирования строки в новый массив
+    private static long bodyBytes(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof CharSequence text) {
+            long length = 0;
+            for (var i = 0; i < text.length(); i++) {
+                var c = text.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.teamcity.api.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Сводка метрик запросов. transport - время от последнего нашего фильтра до ответа (сервер и сеть),
+ * total - время всей цепочки фильтров; разница между ними - накладные расходы фильтров
+ * (логирование, swagger-coverage, Allure). Задержки в миллисекундах.
+ */
+public record RequestMetricsReport(List<Row> rows) {
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public record Latency(double p50, double p90, double p99, double p999, double max, double mean) {
+
+        static Latency of(Histogram histogram) {
+            return new Latency(millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()), histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000);
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    /**
+     * @param statusCodes количество ответов по статус коду, 0 - запрос завершился исключением
+     */
+    public record Row(String endpoint, String verb, long count, Latency transport, Latency total,
+                      long bytesOut, long bytesIn, Map<Integer, Long> statusCodes) {
+
+        static Row of(String endpoint, String verb, OperationStats stats) {
+            var statusCodes = new LinkedHashMap<Integer, Long>();
+            for (var code = 0; code < stats.statusCodes.length(); code++) {
+                var count = stats.statusCodes.get(code);
+                if (count > 0) {
+                    statusCodes.put(code, count);
+                }
+            }
+            var total = stats.total.copy();
+            return new Row(endpoint, verb, total.getTotalCount(), Latency.of(stats.transport.copy()), Latency.of(total),
+                    stats.bytesOut.sum(), stats.bytesIn.sum(), statusCodes);
+        }
+    }
+
+    public String toJson() {
+        try {
+            return JSON.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize request metrics", e);
+        }
+    }
+
+    public String toCsv() {
+        var csv = new StringBuilder("endpoint,verb,count,transport_p50_ms,transport_p90_ms,transport_p99_ms,"
+                + "transport_p999_ms,transport_max_ms,transport_mean_ms,total_p50_ms,total_p99_ms,total_max_ms,"
+                + "bytes_out,bytes_in,status_codes\n");
+        for (var row : rows) {
+            var transport = row.transport();
+            csv.append(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%s%n",
+                    row.endpoint(), row.verb(), row.count(), transport.p50(), transport.p90(), transport.p99(),
+                    transport.p999(), transport.max(), transport.mean(), row.total().p50(), row.total().p99(),
+                    row.total().max(), row.bytesOut(), row.bytesIn(), statusCodes(row, ";")));
+        }
+        return csv.toString();
+    }
+
+    private static String statusCodes(Row row, String delimiter) {
+        return row.statusCodes().entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(delimiter));
+    }
+
+    @Override
+    public String toString() {
+        var table = new StringBuilder("Request metrics (ms, transport / total with filters)%n".formatted());
+        table.append("%-12s %-7s %7s %15s %15s %15s %10s %10s  %s%n".formatted(
+                "endpoint", "verb", "count", "p50", "p99", "max", "bytes out", "bytes in", "status codes"));
+        for (var row : rows) {
+            table.append("%-12s %-7s %7d %15s %15s %15s %10d %10d  %s%n".formatted(row.endpoint(), row.verb(),
+                    row.count(), pair(row.transport().p50(), row.total().p50()),
+                    pair(row.transport().p99(), row.total().p99()), pair(row.transport().max(), row.total().max()),
+                    row.bytesOut(), row.bytesIn(), statusCodes(row, " ")));
+        }
+        return table.toString();
+    }
+
+    private static String pair(double transport, double total) {
+        return "%.1f / %.1f".formatted(transport, total);
+    }
+}
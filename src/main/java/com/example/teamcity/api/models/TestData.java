@@ -1,10 +1,120 @@
 package com.example.teamcity.api.models;
 
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
-@Data
+/**
+ * Сущности теста.
+ * <p>
+ * Экземпляр из {@link com.example.teamcity.api.generators.TestDataGenerator#generate()} ленивый: сущность
+ * генерируется при первом обращении к геттеру, поэтому тест не платит за сущности, которые не использует.
+ * Ссылки между сущностями такие же, как при генерации всех полей сразу: проект build type - тот же экземпляр,
+ * что возвращает {@link #getProject()}. Сеттер задает значение без генерации. toString и equals обращаются
+ * к геттерам и генерируют все поля.
+ */
+@ToString
+@EqualsAndHashCode
 public class TestData {
+    private static final int PROJECT = 1;
+    private static final int USER = 1 << 1;
+    private static final int BUILD_TYPE = 1 << 2;
+
     private Project project;
     private User user;
     private BuildType buildType;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private FieldGenerator generator;
+    // Поля, которые еще не сгенерированы и не заданы сеттером
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private int pending;
+
+    /**
+     * Генерация поля по типу его модели, уже заданные сущности берутся из testData
+     */
+    @FunctionalInterface
+    public interface FieldGenerator {
+        BaseModel generate(Class<? extends BaseModel> type, TestData testData);
+    }
+
+    public TestData() {
+    }
+
+    public TestData(FieldGenerator generator) {
+        this.generator = generator;
+        this.pending = PROJECT | USER | BUILD_TYPE;
+    }
+
+    public Project getProject() {
+        if (isPending(PROJECT)) {
+            setProject((Project) generator.generate(Project.class, this));
+        }
+        return project;
+    }
+
+    public void setProject(Project project) {
+        this.project = project;
+        pending &= ~PROJECT;
+    }
+
+    public User getUser() {
+        if (isPending(USER)) {
+            setUser((User) generator.generate(User.class, this));
+        }
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+        pending &= ~USER;
+    }
+
+    public BuildType getBuildType() {
+        if (isPending(BUILD_TYPE)) {
+            setBuildType((BuildType) generator.generate(BuildType.class, this));
+        }
+        return buildType;
+    }
+
+    public void setBuildType(BuildType buildType) {
+        this.buildType = buildType;
+        pending &= ~BUILD_TYPE;
+    }
+
+    /**
+     * Сущность поля с моделью type, при необходимости генерирует ее
+     */
+    public BaseModel get(Class<? extends BaseModel> type) {
+        return switch (fieldOf(type)) {
+            case PROJECT -> getProject();
+            case USER -> getUser();
+            default -> getBuildType();
+        };
+    }
+
+    /**
+     * true, если поле с моделью type еще не сгенерировано и не задано
+     */
+    public boolean isPending(Class<? extends BaseModel> type) {
+        return isPending(fieldOf(type));
+    }
+
+    private boolean isPending(int field) {
+        return (pending & field) != 0;
+    }
+
+    private static int fieldOf(Class<? extends BaseModel> type) {
+        if (type == Project.class) {
+            return PROJECT;
+        }
+        if (type == User.class) {
+            return USER;
+        }
+        if (type == BuildType.class) {
+            return BUILD_TYPE;
+        }
+        throw new IllegalArgumentException("TestData has no field of type " + type.getName());
+    }
 }
@@ -0,0 +1,37 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.concurrent.LruCache;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.requests.checked.AsyncCheckedBase;
+import com.example.teamcity.api.spec.Specifications;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.EnumMap;
+
+public class AsyncCheckedRequests {
+    private static final LruCache<String, AsyncCheckedRequests> CACHE =
+            new LruCache<>(Config.getIntProperty("spec.cache.size", 64));
+
+    private final EnumMap<Endpoint, AsyncCheckedBase<?>> requests = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Закешированные асинхронные запросы пользователя, создаются один раз на учетные данные
+     */
+    public static AsyncCheckedRequests forUser(User user) {
+        return CACHE.computeIfAbsent(Specifications.identityOf(user),
+                key -> new AsyncCheckedRequests(Specifications.authSpec(user)));
+    }
+
+    public AsyncCheckedRequests(RequestSpecification spec) {
+        for (var endpoint : Endpoint.values()) {
+            requests.put(endpoint, new AsyncCheckedBase<>(spec, endpoint));
+        }
+    }
+
+    public <T extends BaseModel> AsyncCheckedBase<T> getRequest(Endpoint endpoint) {
+        return (AsyncCheckedBase<T>) requests.get(endpoint);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.models.BaseModel;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncCrudInterface {
+    CompletableFuture<?> create(BaseModel model);
+
+    CompletableFuture<?> read(String id);
+    CompletableFuture<?> readByName(String name);
+
+    CompletableFuture<?> update(String id, BaseModel model);
+
+    CompletableFuture<?> delete(String id);
+}
@@ -0,0 +1,72 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.concurrent.DaemonThreadFactory;
+import com.example.teamcity.api.config.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Общий ограниченный пул, на котором выполняются асинхронные запросы
+ * (количество потоков задается свойством async.threads)
+ */
+public final class AsyncRequestExecutor {
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Config.getIntProperty("async.threads", 16), new DaemonThreadFactory("async-request"));
+    private static final int BATCH_CONCURRENCY = Config.getIntProperty("batch.concurrency", 8);
+
+    private AsyncRequestExecutor() {
+    }
+
+    public static ExecutorService getExecutor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Объединяет список future в один, результаты возвращаются в исходном порядке
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Выполняет call для каждого элемента на общем пуле, держа в работе не больше batch.concurrency запросов.
+     * Ошибки отдельных элементов собираются в результат, а не прерывают пакет.
+     */
+    public static <I, R> BatchResult<R> executeAll(List<I> items, Function<I, R> call) {
+        var permits = new Semaphore(BATCH_CONCURRENCY);
+        var results = new ArrayList<R>(Collections.nCopies(items.size(), null));
+        var failures = new ConcurrentSkipListMap<Integer, Throwable>();
+        var futures = new ArrayList<CompletableFuture<Void>>(items.size());
+        for (var i = 0; i < items.size(); i++) {
+            var index = i;
+            permits.acquireUninterruptibly();
+            futures.add(CompletableFuture
+                    .supplyAsync(() -> call.apply(items.get(index)), EXECUTOR)
+                    .handle((result, error) -> {
+                        if (error != null) {
+                            failures.put(index, error instanceof CompletionException ? error.getCause() : error);
+                        } else {
+                            synchronized (results) {
+                                results.set(index, result);
+                            }
+                        }
+                        permits.release();
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        synchronized (results) {
+            return new BatchResult<>(Collections.unmodifiableList(results), Collections.unmodifiableMap(failures));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.requests.unchecked.AsyncUncheckedBase;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.EnumMap;
+
+public class AsyncUncheckedRequests {
+    private final EnumMap<Endpoint, AsyncUncheckedBase> requests = new EnumMap<>(Endpoint.class);
+
+    public AsyncUncheckedRequests(RequestSpecification spec) {
+        for (var endpoint : Endpoint.values()) {
+            requests.put(endpoint, new AsyncUncheckedBase(spec, endpoint));
+        }
+    }
+
+    public AsyncUncheckedBase getRequest(Endpoint endpoint) {
+        return requests.get(endpoint);
+    }
+}
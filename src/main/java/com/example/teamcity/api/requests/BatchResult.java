@@ -0,0 +1,30 @@
+package com.example.teamcity.api.requests;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Результат пакетного запроса: results в порядке входного списка (null на месте упавших элементов),
+ * failures - ошибки по индексу элемента
+ */
+public record BatchResult<T>(List<T> results, Map<Integer, Throwable> failures) {
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public List<T> successful() {
+        return results.stream().filter(Objects::nonNull).toList();
+    }
+
+    public BatchResult<T> assertNoFailures() {
+        if (hasFailures()) {
+            var error = new AssertionError("%d of %d batch requests failed: %s"
+                    .formatted(failures.size(), results.size(), failures));
+            failures.values().forEach(error::addSuppressed);
+            throw error;
+        }
+        return this;
+    }
+}
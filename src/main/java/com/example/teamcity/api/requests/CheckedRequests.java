@@ -1,15 +1,38 @@
 package com.example.teamcity.api.requests;
 
+import com.example.teamcity.api.concurrent.LruCache;
+import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.enums.Endpoint;
 import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.models.User;
 import com.example.teamcity.api.requests.checked.CheckedBase;
+import com.example.teamcity.api.spec.Specifications;
 import io.restassured.specification.RequestSpecification;
 
 import java.util.EnumMap;
+import java.util.stream.Stream;
 
 public class CheckedRequests {
+    private static final LruCache<String, CheckedRequests> CACHE =
+            new LruCache<>(Config.getIntProperty("spec.cache.size", 64));
+
     private final EnumMap<Endpoint, CheckedBase<?>> requests = new EnumMap<>(Endpoint.class);
 
+    /**
+     * Закешированные запросы суперпользователя
+     */
+    public static CheckedRequests forSuperUser() {
+        return CACHE.computeIfAbsent("superUser", key -> new CheckedRequests(Specifications.superUserAuth()));
+    }
+
+    /**
+     * Закешированные запросы пользователя, создаются один раз на учетные данные
+     */
+    public static CheckedRequests forUser(User user) {
+        return CACHE.computeIfAbsent(Specifications.identityOf(user),
+                key -> new CheckedRequests(Specifications.authSpec(user)));
+    }
+
     public CheckedRequests(RequestSpecification spec) {
         for (var endpoint : Endpoint.values()) {
             requests.put(endpoint, new CheckedBase<>(spec, endpoint));
@@ -19,4 +42,11 @@ public class CheckedRequests {
     public <T extends BaseModel> CheckedBase<T> getRequest(Endpoint endpoint) {
         return (CheckedBase<T>) requests.get(endpoint);
     }
+
+    /**
+     * Ленивый постраничный обход сущностей эндпоинта, см. {@link CheckedBase#stream(String)}
+     */
+    public <T extends BaseModel> Stream<T> stream(Endpoint endpoint, String locator) {
+        return this.<T>getRequest(endpoint).stream(locator);
+    }
 }
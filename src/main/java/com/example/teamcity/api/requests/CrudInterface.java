@@ -2,9 +2,13 @@ package com.example.teamcity.api.requests;
 
 import com.example.teamcity.api.models.BaseModel;
 
+import java.util.List;
+
 public interface CrudInterface {
     Object create(BaseModel model);
 
+    Object createAll(List<? extends BaseModel> models);
+
     Object read(String id);
     Object readByName(String name);
 
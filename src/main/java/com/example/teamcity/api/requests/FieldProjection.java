@@ -0,0 +1,109 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.models.BaseModel;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Проекция полей для параметра TeamCity fields: сервер возвращает только перечисленные поля,
+ * поэтому ответ меньше и быстрее разбирается.
+ * <p>
+ * Проекция модели строится по полям класса (вложенные модели и списки моделей раскрываются в скобках,
+ * например id,name,project(id,name)) один раз на класс.
+ */
+public final class FieldProjection {
+    private static final int MAX_DEPTH = 5;
+    private static final String MODELS_PACKAGE = BaseModel.class.getPackageName();
+    private static final FieldProjection MODEL = new FieldProjection(null);
+
+    private static final ClassValue<FieldProjection> MODEL_PROJECTIONS = new ClassValue<>() {
+        @Override
+        protected FieldProjection computeValue(Class<?> type) {
+            return new FieldProjection(describe(type, 0));
+        }
+    };
+
+    private final String fields;
+
+    private FieldProjection(String fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Проекция по модели эндпоинта, к которому выполняется запрос (Endpoint.getModelClass())
+     */
+    public static FieldProjection model() {
+        return MODEL;
+    }
+
+    public static FieldProjection of(Class<?> modelClass) {
+        return MODEL_PROJECTIONS.get(modelClass);
+    }
+
+    /**
+     * Явный список полей в синтаксисе TeamCity, например "id", "name", "project(id)"
+     */
+    public static FieldProjection of(String... fields) {
+        return of(Arrays.asList(fields));
+    }
+
+    public static FieldProjection of(Collection<String> fields) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Field projection must contain at least one field");
+        }
+        return new FieldProjection(String.join(",", fields));
+    }
+
+    /**
+     * Значение fields для одной сущности
+     */
+    public String forEntity(Class<?> modelClass) {
+        return fields == null ? of(modelClass).fields : fields;
+    }
+
+    /**
+     * Значение fields для коллекции: {"count":..., "project":[...]} -> count,project(...)
+     */
+    public String forCollection(String item, Class<?> modelClass) {
+        return "count," + item + "(" + forEntity(modelClass) + ")";
+    }
+
+    @Override
+    public String toString() {
+        return fields == null ? "<model>" : fields;
+    }
+
+    private static String describe(Class<?> type, int depth) {
+        return Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+                .map(field -> describe(field, depth))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String describe(Field field, int depth) {
+        var name = nameOf(field);
+        var nested = nestedModelOf(field);
+        return nested == null || depth >= MAX_DEPTH ? name : name + "(" + describe(nested, depth + 1) + ")";
+    }
+
+    private static String nameOf(Field field) {
+        var property = field.getAnnotation(JsonProperty.class);
+        return property != null && !property.value().isEmpty() ? property.value() : field.getName();
+    }
+
+    private static Class<?> nestedModelOf(Field field) {
+        var type = field.getType();
+        if (List.class.isAssignableFrom(type) && field.getGenericType() instanceof ParameterizedType pt
+                && pt.getActualTypeArguments()[0] instanceof Class<?> itemType) {
+            type = itemType;
+        }
+        return MODELS_PACKAGE.equals(type.getPackageName()) ? type : null;
+    }
+}
@@ -1,14 +1,36 @@
 package com.example.teamcity.api.requests;
 
+import com.example.teamcity.api.concurrent.LruCache;
+import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.models.User;
 import com.example.teamcity.api.requests.unchecked.UncheckedBase;
+import com.example.teamcity.api.spec.Specifications;
 import io.restassured.specification.RequestSpecification;
 
 import java.util.EnumMap;
 
 public class UncheckedRequests {
+    private static final LruCache<String, UncheckedRequests> CACHE =
+            new LruCache<>(Config.getIntProperty("spec.cache.size", 64));
+
     private final EnumMap<Endpoint, UncheckedBase> requests = new EnumMap<>(Endpoint.class);
 
+    /**
+     * Закешированные запросы суперпользователя
+     */
+    public static UncheckedRequests forSuperUser() {
+        return CACHE.computeIfAbsent("superUser", key -> new UncheckedRequests(Specifications.superUserAuth()));
+    }
+
+    /**
+     * Закешированные запросы пользователя, создаются один раз на учетные данные
+     */
+    public static UncheckedRequests forUser(User user) {
+        return CACHE.computeIfAbsent(Specifications.identityOf(user),
+                key -> new UncheckedRequests(Specifications.authSpec(user)));
+    }
+
     public UncheckedRequests(RequestSpecification spec) {
         for (var endpoint : Endpoint.values()) {
             requests.put(endpoint, new UncheckedBase(spec, endpoint));
@@ -0,0 +1,87 @@
+package com.example.teamcity.api.requests.checked;
+
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.generators.TestDataStorage;
+import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.requests.AsyncCrudInterface;
+import com.example.teamcity.api.requests.Request;
+import com.example.teamcity.api.requests.unchecked.AsyncUncheckedBase;
+import com.example.teamcity.api.serialization.ModelMapper;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpStatus;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронный вариант CheckedBase. Проверки статуса выполняются в future, при ошибке future завершается
+ * исключительно. Созданные и удаленные сущности учитываются в TestDataStorage потока, который вызвал
+ * create/delete, а не потока пула.
+ */
+@SuppressWarnings("unchecked")
+public final class AsyncCheckedBase<T extends BaseModel> extends Request implements AsyncCrudInterface {
+    private final AsyncUncheckedBase uncheckedBase;
+
+    public AsyncCheckedBase(RequestSpecification spec, Endpoint endpoint) {
+        super(spec, endpoint);
+        this.uncheckedBase = new AsyncUncheckedBase(spec, endpoint);
+    }
+
+    @Override
+    public CompletableFuture<T> create(BaseModel model) {
+        var storage = TestDataStorage.getStorage();
+        // Хранилище дождется future перед удалением сущностей теста
+        return storage.track(uncheckedBase
+                .create(model)
+                .thenApply(response -> {
+                    var createdModel = readModel(response);
+                    storage.addCreatedEntity(endpoint, createdModel);
+                    return createdModel;
+                }));
+    }
+
+    @Override
+    public CompletableFuture<T> read(String id) {
+        return uncheckedBase
+                .read(id)
+                .thenApply(this::readModel);
+    }
+
+    @Override
+    public CompletableFuture<T> readByName(String name) {
+        return uncheckedBase
+                .read(name)
+                .thenApply(this::readModel);
+    }
+
+    @Override
+    public CompletableFuture<T> update(String id, BaseModel model) {
+        return uncheckedBase
+                .update(id, model)
+                .thenApply(this::readModel);
+    }
+
+    /**
+     * Как {@link CheckedBase#delete(String)}: успешен ответ 200 или 204, удаленная сущность снимается с учета
+     * в TestDataStorage потока, который вызвал delete
+     */
+    @Override
+    public CompletableFuture<String> delete(String id) {
+        var storage = TestDataStorage.getStorage();
+        return uncheckedBase
+                .delete(id)
+                .thenApply(response -> {
+                    var body = (response.getStatusCode() == HttpStatus.SC_NO_CONTENT
+                            ? response : CheckedBase.expectOk(response)).asString();
+                    storage.removeDeletedEntity(endpoint, id.startsWith("id:") ? id.substring(3) : id);
+                    return body;
+                });
+    }
+
+    /**
+     * Как в CheckedBase: проверка статуса и десериализация закешированным ObjectReader'ом модели
+     */
+    private T readModel(Response response) {
+        return (T) ModelMapper.read(CheckedBase.expectOk(response), endpoint.getModelClass());
+    }
+}
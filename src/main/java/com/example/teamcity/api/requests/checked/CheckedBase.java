@@ -1,17 +1,33 @@
 package com.example.teamcity.api.requests.checked;
 
 
+import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.enums.Endpoint;
 import com.example.teamcity.api.generators.TestDataStorage;
 import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.requests.AsyncRequestExecutor;
+import com.example.teamcity.api.requests.BatchResult;
 import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.requests.FieldProjection;
 import com.example.teamcity.api.requests.Request;
 import com.example.teamcity.api.requests.unchecked.UncheckedBase;
+import com.example.teamcity.api.serialization.ModelMapper;
+import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import org.apache.http.HttpStatus;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 @SuppressWarnings("unchecked")
 public final class CheckedBase<T extends BaseModel> extends Request implements CrudInterface {
+    private static final int PAGE_SIZE = Config.getIntProperty("stream.pageSize", 100);
+
     private final UncheckedBase uncheckedBase;
 
     public CheckedBase(RequestSpecification spec, Endpoint endpoint) {
@@ -21,45 +37,117 @@ public final class CheckedBase<T extends BaseModel> extends Request implements C
 
     @Override
     public T create(BaseModel model) {
-        var createdModel = (T) uncheckedBase
-                .create(model)
-                .then().assertThat().statusCode(HttpStatus.SC_OK)
-                .extract().as(endpoint.getModelClass());
+        return create(model, TestDataStorage.getStorage());
+    }
+
+    /**
+     * Пакетное создание: каждый успешно созданный элемент регистрируется в TestDataStorage текущего теста,
+     * ошибки отдельных элементов собираются в BatchResult
+     */
+    @Override
+    public BatchResult<T> createAll(List<? extends BaseModel> models) {
+        var storage = TestDataStorage.getStorage();
+        return AsyncRequestExecutor.executeAll(models, model -> create(model, storage));
+    }
 
-        TestDataStorage.getStorage().addCreatedEntity(endpoint, createdModel);
+    private T create(BaseModel model, TestDataStorage storage) {
+        var createdModel = readModel(uncheckedBase.create(model));
+
+        storage.addCreatedEntity(endpoint, createdModel);
         return createdModel;
     }
 
     @Override
     public T read(String id) {
-        return (T) uncheckedBase
-                .read(id)
-                .then().assertThat().statusCode(HttpStatus.SC_OK)
-                .extract().as(endpoint.getModelClass());
+        return readModel(uncheckedBase.read(id));
+    }
+
+    public T read(String id, FieldProjection fields) {
+        return readModel(uncheckedBase.read(id, fields));
     }
 
 
     @Override
     public T readByName(String name) {
-        return (T) uncheckedBase
-                .read(name)
-                .then().assertThat().statusCode(HttpStatus.SC_OK)
-                .extract().as(endpoint.getModelClass());
+        return readModel(uncheckedBase.read(name));
+    }
+
+    /**
+     * Первая сущность коллекции по locator name:&lt;name&gt;, тот же запрос, что
+     * {@link UncheckedBase#readByName(String, FieldProjection)}. В отличие от {@link #readByName(String)}
+     * (GET сущности по пути /&lt;name&gt;, 404 при отсутствии) ищет в коллекции: пустой результат - AssertionError
+     */
+    public T findByName(String name, FieldProjection fields) {
+        var response = expectOk(uncheckedBase.readByName(name, fields));
+        try {
+            var items = ModelMapper.getMapper().readTree(response.asByteArray()).path(endpoint.getCollectionItem());
+            if (items.isEmpty()) {
+                throw new AssertionError("No %s with name <%s>.\nBody: %s"
+                        .formatted(endpoint.getCollectionItem(), name, response.asString()));
+            }
+            return (T) ModelMapper.readerFor(endpoint.getModelClass()).readValue(items.get(0));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot deserialize response to "
+                    + endpoint.getModelClass().getSimpleName() + ": " + response.asString(), e);
+        }
+    }
+
+    /**
+     * Ленивый постраничный обход сущностей эндпоинта по locator (null - все сущности). Страницы запрашиваются
+     * по мере чтения потока, поток нужно закрывать (try-with-resources), если он прочитан не до конца.
+     * Каждая страница буферизуется в памяти целиком, потоково выполняется только ее разбор.
+     */
+    public Stream<T> stream(String locator) {
+        return stream(locator, null, PAGE_SIZE);
+    }
+
+    public Stream<T> stream(String locator, FieldProjection fields) {
+        return stream(locator, fields, PAGE_SIZE);
+    }
+
+    public Stream<T> stream(String locator, FieldProjection fields, int pageSize) {
+        var firstQuery = new LinkedHashMap<String, String>();
+        var pageLocator = "count:" + pageSize;
+        firstQuery.put("locator", locator == null || locator.isBlank() ? pageLocator : locator + "," + pageLocator);
+        if (fields != null) {
+            firstQuery.put("fields", "nextHref,"
+                    + fields.forCollection(endpoint.getCollectionItem(), endpoint.getModelClass()));
+        }
+        var iterator = new PagedModelIterator<>(uncheckedBase, (Class<T>) endpoint.getModelClass(),
+                endpoint.getCollectionItem(), firstQuery);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
     }
 
     @Override
     public T update(String id, BaseModel model) {
-        return (T) uncheckedBase
-                .update(id, model)
-                .then().assertThat().statusCode(HttpStatus.SC_OK)
-                .extract().as(endpoint.getModelClass());
+        return readModel(uncheckedBase.update(id, model));
     }
 
+    /**
+     * Успешным считается ответ 200 или 204 (TeamCity отвечает на DELETE без тела).
+     * Удаленная сущность снимается с учета в TestDataStorage текущего потока
+     */
     @Override
     public Object delete(String id) {
-        return uncheckedBase
-                .delete(id)
-                .then().assertThat().statusCode(HttpStatus.SC_OK)
-                .extract().asString();
+        var response = uncheckedBase.delete(id);
+        var body = (response.getStatusCode() == HttpStatus.SC_NO_CONTENT ? response : expectOk(response)).asString();
+        TestDataStorage.getStorage().removeDeletedEntity(endpoint, id.startsWith("id:") ? id.substring(3) : id);
+        return body;
+    }
+
+    /**
+     * Проверяет статус и десериализует тело один раз из байтов ответа закешированным ObjectReader'ом модели
+     */
+    private T readModel(Response response) {
+        return (T) ModelMapper.read(expectOk(response), endpoint.getModelClass());
+    }
+
+    static Response expectOk(Response response) {
+        if (response.getStatusCode() != HttpStatus.SC_OK) {
+            throw new AssertionError("Expected status code <%d> but was <%d>.\nBody: %s"
+                    .formatted(HttpStatus.SC_OK, response.getStatusCode(), response.asString()));
+        }
+        return response;
     }
 }
@@ -0,0 +1,154 @@
+package com.example.teamcity.api.requests.checked;
+
+import com.example.teamcity.api.requests.unchecked.UncheckedBase;
+import com.example.teamcity.api.serialization.ModelMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Ленивый обход коллекции TeamCity по страницам count/start: следующая страница запрашивается по nextHref,
+ * только когда текущая прочитана. Страница разбирается потоковым JsonParser'ом по одному элементу,
+ * поэтому в памяти находится не больше одной страницы ответа и одного элемента. Сама страница читается из сети
+ * целиком (ConnectionReleaseFilter буферизует тело), размер страницы ограничивает этот буфер.
+ */
+final class PagedModelIterator<T> implements Iterator<T>, Closeable {
+    private static final String NEXT_HREF = "nextHref";
+
+    private final UncheckedBase request;
+    private final ObjectReader reader;
+    private final String item;
+    private final String fields;
+    private Map<String, String> currentQuery;
+    private Map<String, String> nextQuery;
+    private JsonParser parser;
+    private boolean inItems;
+    private T next;
+
+    PagedModelIterator(UncheckedBase request, Class<T> modelClass, String item, Map<String, String> firstQuery) {
+        this.request = request;
+        this.reader = ModelMapper.readerFor(modelClass);
+        this.item = item;
+        this.fields = firstQuery.get("fields");
+        this.nextQuery = firstQuery;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null) {
+                if (parser == null) {
+                    if (nextQuery == null) {
+                        return false;
+                    }
+                    openPage();
+                }
+                next = readNextItem();
+                if (next == null) {
+                    close();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Cannot read " + item + " page", e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (parser != null) {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                parser = null;
+                inItems = false;
+            }
+        }
+    }
+
+    private void openPage() throws IOException {
+        currentQuery = nextQuery;
+        nextQuery = null;
+        var response = CheckedBase.expectOk(request.readPage(currentQuery));
+        parser = ModelMapper.getMapper().createParser(response.asInputStream());
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected JSON object, got " + parser.currentToken());
+        }
+    }
+
+    /**
+     * Возвращает следующий элемент страницы или null, если страница закончилась. Поля после массива элементов
+     * (например nextHref) дочитываются до конца объекта.
+     */
+    private T readNextItem() throws IOException {
+        if (inItems) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                return reader.readValue(parser);
+            }
+            inItems = false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var name = parser.currentName();
+            var token = parser.nextToken();
+            if (item.equals(name) && token == JsonToken.START_ARRAY) {
+                inItems = true;
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    return reader.readValue(parser);
+                }
+                inItems = false;
+            } else if (NEXT_HREF.equals(name) && token == JsonToken.VALUE_STRING) {
+                var query = queryOf(parser.getText());
+                // nextHref на ту же страницу привел бы к бесконечному обходу
+                nextQuery = query.equals(currentQuery) ? null : query;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Параметры запроса из nextHref. Путь не используется: у спецификаций разный контекст (например /httpAuth),
+     * а следующая страница запрашивается у того же эндпоинта.
+     */
+    private Map<String, String> queryOf(String href) {
+        var query = new LinkedHashMap<String, String>();
+        var start = href.indexOf('?');
+        if (start >= 0) {
+            for (var parameter : href.substring(start + 1).split("&")) {
+                var separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    query.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (fields != null) {
+            query.putIfAbsent("fields", fields);
+        }
+        return query;
+    }
+}
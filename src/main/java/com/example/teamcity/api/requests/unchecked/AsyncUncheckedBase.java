@@ -0,0 +1,51 @@
+package com.example.teamcity.api.requests.unchecked;
+
+import com.example.teamcity.api.enums.Endpoint;
+import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.requests.AsyncCrudInterface;
+import com.example.teamcity.api.requests.AsyncRequestExecutor;
+import com.example.teamcity.api.requests.Request;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронный вариант UncheckedBase: те же запросы со всеми фильтрами спецификации,
+ * выполняемые на общем пуле {@link AsyncRequestExecutor}
+ */
+public class AsyncUncheckedBase extends Request implements AsyncCrudInterface {
+    private final UncheckedBase uncheckedBase;
+
+    public AsyncUncheckedBase(RequestSpecification spec, Endpoint endpoint) {
+        super(spec, endpoint);
+        this.uncheckedBase = new UncheckedBase(spec, endpoint);
+    }
+
+    @Override
+    public CompletableFuture<Response> create(BaseModel model) {
+        return CompletableFuture.supplyAsync(() -> uncheckedBase.create(model), AsyncRequestExecutor.getExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Response> read(String locator) {
+        return CompletableFuture.supplyAsync(() -> uncheckedBase.read(locator), AsyncRequestExecutor.getExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Response> readByName(String name) {
+        return CompletableFuture.supplyAsync(() -> uncheckedBase.readByName(name),
+                AsyncRequestExecutor.getExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Response> update(String locator, BaseModel model) {
+        return CompletableFuture.supplyAsync(() -> uncheckedBase.update(locator, model),
+                AsyncRequestExecutor.getExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Response> delete(String locator) {
+        return CompletableFuture.supplyAsync(() -> uncheckedBase.delete(locator), AsyncRequestExecutor.getExecutor());
+    }
+}
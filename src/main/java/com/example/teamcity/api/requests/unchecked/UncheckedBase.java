@@ -2,12 +2,18 @@ package com.example.teamcity.api.requests.unchecked;
 
 import com.example.teamcity.api.enums.Endpoint;
 import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.requests.AsyncRequestExecutor;
+import com.example.teamcity.api.requests.BatchResult;
 import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.requests.FieldProjection;
 import com.example.teamcity.api.requests.Request;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
+import java.util.List;
+import java.util.Map;
+
 public class UncheckedBase extends Request implements CrudInterface {
 
     public UncheckedBase(RequestSpecification spec, Endpoint endpoint) {
@@ -23,6 +29,14 @@ public class UncheckedBase extends Request implements CrudInterface {
                 .post(endpoint.getUrl());
     }
 
+    /**
+     * Создает сущности пакетно с ограниченной параллельностью, ответы возвращаются в порядке входного списка
+     */
+    @Override
+    public BatchResult<Response> createAll(List<? extends BaseModel> models) {
+        return AsyncRequestExecutor.executeAll(models, this::create);
+    }
+
     @Override
     public Response read(String locator) {
         return RestAssured
@@ -31,6 +45,17 @@ public class UncheckedBase extends Request implements CrudInterface {
                 .get(endpoint.getUrl() + "/" + locator);
     }
 
+    /**
+     * Чтение с проекцией полей: FieldProjection.model() - поля модели эндпоинта, FieldProjection.of(...) - явный список
+     */
+    public Response read(String locator, FieldProjection fields) {
+        return RestAssured
+                .given()
+                .spec(spec)
+                .queryParam("fields", fields.forEntity(endpoint.getModelClass()))
+                .get(endpoint.getUrl() + "/" + locator);
+    }
+
     @Override
     public Response readByName(String name) {
         return RestAssured
@@ -40,6 +65,26 @@ public class UncheckedBase extends Request implements CrudInterface {
                 .get(endpoint.getUrl());
     }
 
+    public Response readByName(String name, FieldProjection fields) {
+        return RestAssured
+                .given()
+                .spec(spec)
+                .queryParam("locator", "name:" + name)
+                .queryParam("fields", fields.forCollection(endpoint.getCollectionItem(), endpoint.getModelClass()))
+                .get(endpoint.getUrl());
+    }
+
+    /**
+     * GET коллекции эндпоинта с произвольными параметрами запроса (locator, fields), используется для постраничного чтения
+     */
+    public Response readPage(Map<String, String> queryParameters) {
+        return RestAssured
+                .given()
+                .spec(spec)
+                .queryParams(queryParameters)
+                .get(endpoint.getUrl());
+    }
+
     @Override
     public Response update(String locator, BaseModel model) {
         return RestAssured
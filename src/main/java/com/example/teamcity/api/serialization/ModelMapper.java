@@ -0,0 +1,70 @@
+package com.example.teamcity.api.serialization;
+
+import com.example.teamcity.api.config.Config;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+
+/**
+ * Общий ObjectMapper для моделей и закешированные per-class ObjectReader'ы.
+ * <p>
+ * Ответ десериализуется один раз прямо из байтов тела, минуя поиск object mapper'а RestAssured
+ * и промежуточную строку. Модуль ускорения Jackson (json.module = blackbird | afterburner | none)
+ * подключается по имени класса, поэтому его зависимость необязательна.
+ */
+public final class ModelMapper {
+    private static final ObjectMapper MAPPER = createMapper();
+
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return MAPPER.readerFor(type);
+        }
+    };
+
+    private ModelMapper() {
+    }
+
+    public static ObjectMapper getMapper() {
+        return MAPPER;
+    }
+
+    public static ObjectReader readerFor(Class<?> type) {
+        return READERS.get(type);
+    }
+
+    public static <T> T read(Response response, Class<T> type) {
+        try {
+            return readerFor(type).readValue(response.asByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot deserialize response to " + type.getSimpleName()
+                    + ": " + response.asString(), e);
+        }
+    }
+
+    private static ObjectMapper createMapper() {
+        var mapper = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        var module = Config.getProperty("json.module", "none").trim().toLowerCase();
+        switch (module) {
+            case "blackbird" -> mapper.registerModule(loadModule("com.fasterxml.jackson.module.blackbird.BlackbirdModule"));
+            case "afterburner" -> mapper.registerModule(loadModule("com.fasterxml.jackson.module.afterburner.AfterburnerModule"));
+            case "none", "" -> {
+            }
+            default -> throw new IllegalStateException("Unknown json.module: " + module);
+        }
+        return mapper;
+    }
+
+    private static Module loadModule(String className) {
+        try {
+            return (Module) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Jackson module " + className + " is not on the classpath", e);
+        }
+    }
+}
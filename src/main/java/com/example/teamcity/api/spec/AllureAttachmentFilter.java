@@ -0,0 +1,125 @@
+package com.example.teamcity.api.spec;
+
+import com.example.teamcity.api.config.Config;
+import io.qameta.allure.Allure;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замена AllureRestAssured: прикладывает запрос и ответ к Allure отчету потоком, без сборки тел в строки и HTML шаблоны.
+ * <p>
+ * Тела обрезаются до allure.attach.maxBodyBytes байт. Какие запросы прикладываются, определяет {@link AttachmentMode},
+ * а из не попавших под режим успешных запросов прикладывается allure.attach.samplePercent процентов.
+ * <p>
+ * Ограничен только размер вложения, а не чтение ответа: тело все равно читается целиком, чтобы соединение
+ * вернулось в пул ({@link ConnectionReleaseFilter}), и вложение берет первые maxBodyBytes байт из буфера Response.
+ */
+public class AllureAttachmentFilter implements Filter {
+    private static final AttachmentMode MODE = AttachmentMode.fromConfig();
+    private static final int MAX_BODY_BYTES = Config.getIntProperty("allure.attach.maxBodyBytes", 65_536);
+    private static final int SLOW_MS = Config.getIntProperty("allure.attach.slowMs", 1_000);
+    private static final int SAMPLE_PERCENT = Config.getIntProperty("allure.attach.samplePercent", 0);
+    private static final String CONTENT_TYPE = "text/plain";
+    private static final String EXTENSION = "txt";
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (MODE == AttachmentMode.OFF && SAMPLE_PERCENT <= 0) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        var start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            if (MODE != AttachmentMode.OFF) {
+                attachRequest(requestSpec);
+                attach("Failed: " + e, CONTENT_TYPE, text(e.toString()));
+            }
+            throw e;
+        }
+        var durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (shouldAttach(response.getStatusCode(), durationMs)) {
+            attachRequest(requestSpec);
+            attachResponse(response, durationMs);
+        }
+        return response;
+    }
+
+    private static boolean shouldAttach(int statusCode, long durationMs) {
+        var failed = statusCode >= 400;
+        var slow = durationMs >= SLOW_MS;
+        var selected = switch (MODE) {
+            case ALL -> true;
+            case FAILED -> failed;
+            case SLOW -> slow;
+            case FAILED_OR_SLOW -> failed || slow;
+            case OFF -> false;
+        };
+        return selected || SAMPLE_PERCENT > 0 && ThreadLocalRandom.current().nextInt(100) < SAMPLE_PERCENT;
+    }
+
+    private static void attachRequest(FilterableRequestSpecification requestSpec) {
+        var head = new StringBuilder()
+                .append(requestSpec.getMethod()).append(' ').append(requestSpec.getURI()).append('\n');
+        appendHeaders(head, requestSpec.getHeaders());
+        attach("Request: " + requestSpec.getMethod() + " " + requestSpec.getURI(), CONTENT_TYPE,
+                withBody(head, requestBody(requestSpec.getBody())));
+    }
+
+    private static void attachResponse(Response response, long durationMs) {
+        var head = new StringBuilder()
+                .append(response.getStatusLine()).append(" (").append(durationMs).append(" ms)\n");
+        appendHeaders(head, response.getHeaders());
+        // Тело буферизуется в Response один раз, ConnectionReleaseFilter читает тот же буфер
+        var body = response.asByteArray();
+        attach("Response: " + response.getStatusCode(), CONTENT_TYPE, withBody(head, body));
+    }
+
+    private static void appendHeaders(StringBuilder head, Headers headers) {
+        for (Header header : headers) {
+            head.append(header.getName()).append(": ").append(header.getValue()).append('\n');
+        }
+        head.append('\n');
+    }
+
+    private static byte[] requestBody(Object body) {
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static InputStream withBody(CharSequence head, byte[] body) {
+        var length = Math.min(body.length, MAX_BODY_BYTES);
+        var parts = List.<InputStream>of(text(head), new ByteArrayInputStream(body, 0, length),
+                length < body.length ? text("\n... truncated, " + body.length + " bytes total") : text(""));
+        return new SequenceInputStream(Collections.enumeration(parts));
+    }
+
+    private static InputStream text(CharSequence value) {
+        return new ByteArrayInputStream(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void attach(String name, String type, InputStream content) {
+        Allure.getLifecycle().addAttachment(name, type, EXTENSION, content);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.teamcity.api.spec;
+
+import com.example.teamcity.api.config.Config;
+
+import java.util.Arrays;
+
+/**
+ * Какие запросы прикладываются к Allure отчету, задается свойством allure.attach.mode в config.properties
+ */
+public enum AttachmentMode {
+    /**
+     * Все запросы (по умолчанию)
+     */
+    ALL("all"),
+    /**
+     * Запросы с ответом 4xx/5xx или упавшие с исключением
+     */
+    FAILED("failed"),
+    /**
+     * Запросы дольше allure.attach.slowMs
+     */
+    SLOW("slow"),
+    FAILED_OR_SLOW("failed-or-slow"),
+    OFF("off");
+
+    private final String value;
+
+    AttachmentMode(String value) {
+        this.value = value;
+    }
+
+    public static AttachmentMode fromConfig() {
+        var value = Config.getProperty("allure.attach.mode", ALL.value).trim();
+        return Arrays.stream(values())
+                .filter(mode -> mode.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown allure.attach.mode: " + value));
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.teamcity.api.spec;
+
+import com.example.teamcity.api.concurrent.DaemonThreadFactory;
+import com.example.teamcity.api.config.Config;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.viclovsky.swagger.coverage.CoverageOutputWriter;
+import com.github.viclovsky.swagger.coverage.FileSystemOutputWriter;
+import com.github.viclovsky.swagger.coverage.SwaggerCoverageUtils;
+import com.github.viclovsky.swagger.coverage.SwaggerCoverageWriteException;
+import com.github.viclovsky.swagger.coverage.model.SwaggerCoverage2ModelJackson;
+import io.swagger.models.Swagger;
+import io.swagger.v3.oas.models.OpenAPI;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.viclovsky.swagger.coverage.SwaggerCoverageConstants.OUTPUT_DIRECTORY;
+
+/**
+ * Буферизованная замена FileSystemOutputWriter для swagger-coverage.
+ * <p>
+ * Фильтр только кладет запись в очередь, а фоновый поток раз в coverage.flushIntervalMs (или по накоплении
+ * coverage.batchSize записей) пишет их пачкой. Записи пачки склеиваются в общие swagger-документы, при этом
+ * в одном документе никогда не бывает двух операций с одинаковыми path и method: swagger-coverage-commandline
+ * считает каждую операцию каждого файла отдельным вызовом, поэтому покрытие по эндпоинтам совпадает
+ * с тем, что дает запись файла на каждый запрос. Остаток очереди дописывается в {@link #flush()} в конце сьюта
+ * и в shutdown hook.
+ */
+public final class BufferedCoverageOutputWriter implements CoverageOutputWriter {
+    private static final int BATCH_SIZE = Config.getIntProperty("coverage.batchSize", 500);
+    private static final int FLUSH_INTERVAL_MS = Config.getIntProperty("coverage.flushIntervalMs", 1_000);
+    private static final BufferedCoverageOutputWriter INSTANCE =
+            new BufferedCoverageOutputWriter(Paths.get("target/" + OUTPUT_DIRECTORY));
+
+    private final Path outputDirectory;
+    private final ObjectMapper jsonMapper = SwaggerCoverage2ModelJackson.createJsonMapper();
+    private final BlockingQueue<Swagger> queue = new LinkedBlockingQueue<>(BATCH_SIZE * 10);
+    private final FileSystemOutputWriter openApiWriter;
+    private final Object writeLock = new Object();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private BufferedCoverageOutputWriter(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+        this.openApiWriter = new FileSystemOutputWriter(outputDirectory);
+        new DaemonThreadFactory("coverage-writer").newThread(this::writeLoop).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "coverage-writer-shutdown"));
+    }
+
+    public static BufferedCoverageOutputWriter getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void write(Swagger swagger) {
+        try {
+            pending.incrementAndGet();
+            queue.put(swagger);
+        } catch (InterruptedException e) {
+            pending.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new SwaggerCoverageWriteException("Interrupted while queueing coverage output", e);
+        }
+    }
+
+    /**
+     * OpenAPI 3 вывод (SwaggerCoverageV3RestAssured) в проекте не используется и пишется без буферизации
+     */
+    @Override
+    public void write(OpenAPI openAPI) {
+        openApiWriter.write(openAPI);
+    }
+
+    /**
+     * Синхронно записывает все накопленные записи, включая пачку, которую в этот момент пишет фоновый поток
+     */
+    public void flush() {
+        var batch = new ArrayList<Swagger>();
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS * 10L);
+        try {
+            while (pending.get() > 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        var batch = new ArrayList<Swagger>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                var first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, BATCH_SIZE - batch.size());
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                System.err.println("Error while writing swagger coverage output: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Swagger> batch) {
+        try {
+            synchronized (writeLock) {
+                createDirectories();
+                for (var document : compact(batch)) {
+                    var file = outputDirectory.resolve(SwaggerCoverageUtils.generateJsonCoverageOutputName());
+                    try (var stream = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW)) {
+                        jsonMapper.writeValue(stream, document);
+                    } catch (IOException e) {
+                        throw new SwaggerCoverageWriteException("Could not write Swagger coverage output", e);
+                    }
+                }
+            }
+        } finally {
+            pending.addAndGet(-batch.size());
+        }
+    }
+
+    private static List<Swagger> compact(List<Swagger> batch) {
+        var documentsByRoot = new LinkedHashMap<String, List<Swagger>>();
+        for (var swagger : batch) {
+            var documents = documentsByRoot.computeIfAbsent(rootKey(swagger), key -> new ArrayList<>());
+            var target = documents.stream().filter(document -> canMerge(document, swagger)).findFirst();
+            if (target.isPresent()) {
+                merge(target.get(), swagger);
+            } else {
+                documents.add(swagger);
+            }
+        }
+        return documentsByRoot.values().stream().flatMap(List::stream).toList();
+    }
+
+    private static String rootKey(Swagger swagger) {
+        return Objects.toString(swagger.getHost()) + swagger.getSchemes() + swagger.getConsumes()
+                + swagger.getProduces();
+    }
+
+    private static boolean canMerge(Swagger document, Swagger swagger) {
+        if (swagger.getPaths() == null || document.getPaths() == null) {
+            return false;
+        }
+        for (Map.Entry<String, io.swagger.models.Path> entry : swagger.getPaths().entrySet()) {
+            var existing = document.getPath(entry.getKey());
+            if (existing != null && entry.getValue().getOperationMap().keySet().stream()
+                    .anyMatch(existing.getOperationMap()::containsKey)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void merge(Swagger document, Swagger swagger) {
+        swagger.getPaths().forEach((pathName, path) -> {
+            var existing = document.getPath(pathName);
+            if (existing == null) {
+                document.path(pathName, path);
+            } else {
+                path.getOperationMap().forEach((method, operation) ->
+                        existing.set(method.name().toLowerCase(), operation));
+            }
+        });
+    }
+
+    private void createDirectories() {
+        try {
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            throw new SwaggerCoverageWriteException("Could not create Swagger output directory", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.teamcity.api.spec;
+
+import com.example.teamcity.api.concurrent.DaemonThreadFactory;
+import com.example.teamcity.api.config.Config;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HttpResponse;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий пул keep-alive соединений для всех спецификаций.
+ * <p>
+ * RestAssured создает HttpClient на каждый запрос, поэтому фабрика возвращает легковесный DefaultHttpClient
+ * поверх одного общего PoolingClientConnectionManager: параметры запроса применяются к своему клиенту,
+ * а TCP соединения переиспользуются. Соединение возвращается в пул после чтения тела ответа,
+ * поэтому в спецификации должен быть установлен {@link ConnectionReleaseFilter}.
+ * Пустые тела (Content-Length: 0) RestAssured не читает, поэтому они отбрасываются еще в клиенте, и соединение
+ * освобождается сразу, как для 204. Размер пула, таймауты и время простоя задаются в config.properties (http.*).
+ * <p>
+ * Запрос ждет свободного соединения до http.pool.leaseTimeoutMs, затем падает с ConnectionPoolTimeoutException.
+ * Чтобы запросы ждали только при перегрузке, http.pool.maxPerRoute должен быть не меньше числа потоков, которые
+ * одновременно ходят на хост: async.threads + cleanup.threads + потоки тестов (api.threads + ui.threads) + заполнение
+ * FixturePool. Тела ответов буферизуются целиком (см. {@link ConnectionReleaseFilter}).
+ */
+@SuppressWarnings("deprecation")
+public final class ConnectionPool {
+    private static final int MAX_TOTAL = Config.getIntProperty("http.pool.maxTotal", 50);
+    private static final int MAX_PER_ROUTE = Config.getIntProperty("http.pool.maxPerRoute", 40);
+    private static final int IDLE_TIMEOUT_MS = Config.getIntProperty("http.pool.idleTimeoutMs", 30_000);
+    private static final int CONNECT_TIMEOUT_MS = Config.getIntProperty("http.connectTimeoutMs", 10_000);
+    private static final int READ_TIMEOUT_MS = Config.getIntProperty("http.readTimeoutMs", 60_000);
+    private static final int LEASE_TIMEOUT_MS = Config.getIntProperty("http.pool.leaseTimeoutMs", 30_000);
+
+    private static final PoolingClientConnectionManager CONNECTION_MANAGER = createConnectionManager();
+
+    static {
+        startIdleEvictor();
+    }
+
+    private ConnectionPool() {
+    }
+
+    public static HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig()
+                .httpClientFactory(ConnectionPool::createHttpClient)
+                .setParam("http.connection.timeout", CONNECT_TIMEOUT_MS)
+                .setParam("http.socket.timeout", READ_TIMEOUT_MS)
+                .setParam("http.conn-manager.timeout", (long) LEASE_TIMEOUT_MS);
+    }
+
+    /**
+     * Статистика пула: leased - занятые соединения, pending - ожидающие соединения запросы,
+     * available - свободные keep-alive соединения, max - максимальный размер пула
+     */
+    public static PoolStats getStats() {
+        return CONNECTION_MANAGER.getTotalStats();
+    }
+
+    private static DefaultHttpClient createHttpClient() {
+        var httpClient = new DefaultHttpClient(CONNECTION_MANAGER);
+        httpClient.addResponseInterceptor(ConnectionPool::dropEmptyEntity);
+        return httpClient;
+    }
+
+    private static void dropEmptyEntity(HttpResponse response, HttpContext context) throws IOException {
+        var entity = response.getEntity();
+        if (entity != null && entity.getContentLength() == 0) {
+            EntityUtils.consume(entity);
+            response.setEntity(null);
+        }
+    }
+
+    private static PoolingClientConnectionManager createConnectionManager() {
+        var connectionManager = new PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(MAX_TOTAL);
+        connectionManager.setDefaultMaxPerRoute(MAX_PER_ROUTE);
+        return connectionManager;
+    }
+
+    // Поток демон, живет до завершения JVM
+    private static void startIdleEvictor() {
+        var evictor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("connection-evictor"));
+        var period = Math.max(IDLE_TIMEOUT_MS / 2, 1_000);
+        evictor.scheduleAtFixedRate(() -> {
+            CONNECTION_MANAGER.closeExpiredConnections();
+            CONNECTION_MANAGER.closeIdleConnections(IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+}
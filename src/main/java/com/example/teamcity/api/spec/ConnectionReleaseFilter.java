@@ -0,0 +1,26 @@
+package com.example.teamcity.api.spec;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Дочитывает тело ответа, чтобы соединение вернулось в {@link ConnectionPool} даже если тест проверяет
+ * только статус код. Тело кешируется в Response, повторного чтения из сети не происходит.
+ * <p>
+ * Поэтому каждое тело ответа целиком загружается в память: потоковый разбор ({@link
+ * com.example.teamcity.api.requests.checked.CheckedBase#stream(String)}) и ограничение вложений Allure читают
+ * уже буферизованное тело и экономят только на разборе и копиях, а не на загрузке ответа.
+ */
+public class ConnectionReleaseFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        var response = ctx.next(requestSpec, responseSpec);
+        response.asByteArray();
+        return response;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.teamcity.api.spec;
+
+import com.example.teamcity.api.config.Config;
+
+import java.util.Arrays;
+
+/**
+ * Режим логирования запросов, задается свойством logging.mode в config.properties
+ */
+public enum LoggingMode {
+    /**
+     * Полные запросы и ответы (по умолчанию)
+     */
+    FULL("full"),
+    /**
+     * Метод, URI, заголовки и статус, без тел
+     */
+    HEADERS_ONLY("headers-only"),
+    /**
+     * Запросы копятся в ограниченном кольцевом буфере потока и выводятся только при падении теста
+     */
+    ON_FAILURE_ONLY("on-failure-only"),
+    OFF("off");
+
+    private final String value;
+
+    LoggingMode(String value) {
+        this.value = value;
+    }
+
+    public static LoggingMode fromConfig() {
+        var value = Config.getProperty("logging.mode", FULL.value).trim();
+        return Arrays.stream(values())
+                .filter(mode -> mode.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown logging.mode: " + value));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.teamcity.api.spec;
+
+import com.example.teamcity.api.config.Config;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Фильтр для режима {@link LoggingMode#ON_FAILURE_ONLY}: хранит последние logging.bufferSize запросов потока,
+ * каждый не длиннее logging.maxEntryLength символов, поэтому память на поток ограничена.
+ * Буфер выводится через {@link #replay(PrintStream)} при падении теста и очищается перед следующим.
+ */
+public class RingBufferLoggingFilter implements Filter {
+    private static final int CAPACITY = Config.getIntProperty("logging.bufferSize", 20);
+    private static final int MAX_ENTRY_LENGTH = Config.getIntProperty("logging.maxEntryLength", 8192);
+    private static final ThreadLocal<Deque<String>> BUFFER = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        var entry = new StringBuilder()
+                .append("Request: ").append(requestSpec.getMethod()).append(' ').append(requestSpec.getURI())
+                .append("\nBody: ").append(truncate(requestSpec.getBody()));
+        try {
+            var response = ctx.next(requestSpec, responseSpec);
+            entry.append("\nResponse: ").append(response.getStatusLine())
+                    .append("\nBody: ").append(truncate(response.asString()));
+            return response;
+        } catch (RuntimeException e) {
+            entry.append("\nFailed: ").append(e);
+            throw e;
+        } finally {
+            record(entry.length() > MAX_ENTRY_LENGTH ? entry.substring(0, MAX_ENTRY_LENGTH) : entry.toString());
+        }
+    }
+
+    public static void replay(PrintStream out) {
+        var buffer = BUFFER.get();
+        if (buffer.isEmpty()) {
+            return;
+        }
+        out.println("Last " + buffer.size() + " requests before failure:");
+        buffer.forEach(out::println);
+        buffer.clear();
+    }
+
+    public static void clear() {
+        BUFFER.get().clear();
+    }
+
+    private static void record(String entry) {
+        var buffer = BUFFER.get();
+        if (buffer.size() == CAPACITY) {
+            buffer.removeFirst();
+        }
+        buffer.addLast(entry);
+    }
+
+    private static String truncate(Object body) {
+        var value = String.valueOf(body);
+        return value.length() > MAX_ENTRY_LENGTH ? value.substring(0, MAX_ENTRY_LENGTH) + "..." : value;
+    }
+}
@@ -1,57 +1,146 @@
 package com.example.teamcity.api.spec;
 
+import com.example.teamcity.api.budget.BudgetMode;
+import com.example.teamcity.api.budget.LatencyBudgetFilter;
+import com.example.teamcity.api.budget.LatencyBudgets;
+import com.example.teamcity.api.concurrent.LruCache;
 import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.emulator.EmulatorFilter;
+import com.example.teamcity.api.emulator.TeamCityEmulator;
+import com.example.teamcity.api.metrics.RequestMetrics;
+import com.example.teamcity.api.metrics.RequestMetricsFilter;
 import com.example.teamcity.api.models.User;
-import com.github.viclovsky.swagger.coverage.FileSystemOutputWriter;
+import com.example.teamcity.api.serialization.ModelMapper;
 import com.github.viclovsky.swagger.coverage.SwaggerCoverageRestAssured;
-import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.log.LogDetail;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 
-import java.nio.file.Paths;
-
-import static com.github.viclovsky.swagger.coverage.SwaggerCoverageConstants.OUTPUT_DIRECTORY;
-
+/**
+ * Построенные спецификации кешируются по учетным данным (LRU, размер spec.cache.size), фильтры создаются
+ * один раз на пользователя. Спецификации из кеша общие - их нельзя изменять, только передавать в given().spec(...)
+ */
 public class Specifications {
+    private static final LruCache<String, RequestSpecification> SPECS =
+            new LruCache<>(Config.getIntProperty("spec.cache.size", 64));
+    private static final ThreadLocal<String> MOCK_BASE_URI = new ThreadLocal<>();
+
     private static RequestSpecBuilder reqBuilder() {
         var requestBuilder = new RequestSpecBuilder();
-        requestBuilder.addFilter(new RequestLoggingFilter());
-        requestBuilder.addFilter(new ResponseLoggingFilter());
-        requestBuilder.addFilter(new SwaggerCoverageRestAssured(
-                new FileSystemOutputWriter(
-                        Paths.get("target/" + OUTPUT_DIRECTORY)
-                )
-        ));
-        requestBuilder.addFilter(new AllureRestAssured());
+        if (RequestMetrics.isEnabled()) {
+            requestBuilder.addFilter(RequestMetricsFilter.total());
+        }
+        requestBuilder.addFilter(new ConnectionReleaseFilter());
+        addLoggingFilters(requestBuilder, LoggingMode.fromConfig());
+        requestBuilder.addFilter(new SwaggerCoverageRestAssured(BufferedCoverageOutputWriter.getInstance()));
+        requestBuilder.addFilter(new AllureAttachmentFilter());
+        if (RequestMetrics.isEnabled()) {
+            requestBuilder.addFilter(RequestMetricsFilter.transport());
+        }
+        if (LatencyBudgets.getMode() != BudgetMode.OFF) {
+            requestBuilder.addFilter(new LatencyBudgetFilter());
+        }
+        requestBuilder.setConfig(RestAssuredConfig.config()
+                .httpClient(ConnectionPool.httpClientConfig())
+                .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
+                        .jackson2ObjectMapperFactory((type, charset) -> ModelMapper.getMapper())));
         requestBuilder.setContentType(ContentType.JSON);
         requestBuilder.setAccept(ContentType.JSON);
         return requestBuilder;
     }
 
-    public static RequestSpecification superUserAuth() {
+    /**
+     * Спецификация TeamCity: при emulator.enabled=true последним фильтром ставится эмулятор, и запросы
+     * не уходят в сеть
+     */
+    private static RequestSpecBuilder teamCityReqBuilder() {
         var requestBuilder = reqBuilder();
-        requestBuilder.setBaseUri("http://%s:%s@%s/httpAuth".formatted("", Config.getProperty("superUserToken"), Config.getProperty("host")));
-        return requestBuilder.build();
+        if (TeamCityEmulator.isEnabled()) {
+            requestBuilder.addFilter(new EmulatorFilter());
+        }
+        return requestBuilder;
+    }
+
+    // С эмулятором host не обязателен: адрес нужен только для base URI и имен файлов
+    private static String host() {
+        var host = Config.getProperty("host");
+        return host == null && TeamCityEmulator.isEnabled() ? "teamcity-emulator" : host;
+    }
+
+    private static void addLoggingFilters(RequestSpecBuilder requestBuilder, LoggingMode mode) {
+        switch (mode) {
+            case FULL -> {
+                requestBuilder.addFilter(new RequestLoggingFilter());
+                requestBuilder.addFilter(new ResponseLoggingFilter());
+            }
+            case HEADERS_ONLY -> {
+                requestBuilder.addFilter(new RequestLoggingFilter(LogDetail.METHOD));
+                requestBuilder.addFilter(new RequestLoggingFilter(LogDetail.URI));
+                requestBuilder.addFilter(new RequestLoggingFilter(LogDetail.HEADERS));
+                requestBuilder.addFilter(new ResponseLoggingFilter(LogDetail.STATUS));
+                requestBuilder.addFilter(new ResponseLoggingFilter(LogDetail.HEADERS));
+            }
+            case ON_FAILURE_ONLY -> requestBuilder.addFilter(new RingBufferLoggingFilter());
+            case OFF -> {
+            }
+        }
+    }
+
+    public static RequestSpecification superUserAuth() {
+        return SPECS.computeIfAbsent("superUser", key -> {
+            var requestBuilder = teamCityReqBuilder();
+            requestBuilder.setBaseUri("http://%s:%s@%s/httpAuth".formatted("", Config.getProperty("superUserToken"), host()));
+            return requestBuilder.build();
+        });
     }
 
     public static RequestSpecification unauthSpec() {
-        var requestBuilder = reqBuilder();
-        requestBuilder.setBaseUri("http://%s".formatted(Config.getProperty("host")));
-        return requestBuilder.build();
+        return SPECS.computeIfAbsent("unauth", key -> {
+            var requestBuilder = teamCityReqBuilder();
+            requestBuilder.setBaseUri("http://%s".formatted(host()));
+            return requestBuilder.build();
+        });
     }
 
     public static RequestSpecification authSpec(User user) {
-        var requestBuilder = reqBuilder();
-        requestBuilder.setBaseUri("http://%s:%s@%s".formatted(user.getUsername(), user.getPassword(), Config.getProperty("host")));
-        return requestBuilder.build();
+        return SPECS.computeIfAbsent(identityOf(user), key -> {
+            var requestBuilder = teamCityReqBuilder();
+            requestBuilder.setBaseUri("http://%s:%s@%s".formatted(user.getUsername(), user.getPassword(), host()));
+            return requestBuilder.build();
+        });
+    }
+
+    /**
+     * Ключ кеша для пользователя: спецификации и запросы одного пользователя переиспользуются
+     */
+    public static String identityOf(User user) {
+        return "user:" + user.getUsername() + ":" + user.getPassword();
+    }
+
+    /**
+     * Спецификация для mock сервера текущего потока: у каждого потока свой сервер на динамическом порту,
+     * адрес регистрирует тестовый WireMock через {@link #setMockBaseUri(String)}
+     */
+    public static RequestSpecification mockSpec() {
+        var baseUri = MOCK_BASE_URI.get();
+        if (baseUri == null) {
+            throw new IllegalStateException("Mock server is not started in thread " + Thread.currentThread().getName());
+        }
+        return SPECS.computeIfAbsent("mock:" + baseUri, key -> reqBuilder()
+                .setBaseUri(baseUri)
+                .build());
     }
 
-    public RequestSpecification mockSpec() {
-        return reqBuilder()
-                .setBaseUri("http://localhost:8081")
-                .build();
+    public static void setMockBaseUri(String baseUri) {
+        if (baseUri == null) {
+            MOCK_BASE_URI.remove();
+        } else {
+            MOCK_BASE_URI.set(baseUri);
+        }
     }
 }
@@ -0,0 +1,129 @@
+package com.example.teamcity.api.validators;
+
+import com.example.teamcity.api.serialization.ModelMapper;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Заранее собранная проверка ответа с ошибкой: статус код, путь к сообщению и шаблоны сообщения создаются один раз,
+ * на каждый вызов через {@link #bind(Object...)} подставляются только id или имя.
+ * <p>
+ * Тело ответа разбирается не больше одного раза на проверку: при ожидаемом пути сообщение читается
+ * из дерева Jackson по JsonPointer, иначе проверяется текст тела.
+ */
+public final class ErrorResponseValidator {
+    private final int statusCode;
+    private final String messagePath;
+    private final JsonPointer messagePointer;
+    private final List<Expectation> expectations;
+    private final ResponseValidator withoutArguments = this::validate;
+
+    private ErrorResponseValidator(int statusCode, String messagePath, List<Expectation> expectations) {
+        this.statusCode = statusCode;
+        this.messagePath = messagePath;
+        this.messagePointer = messagePath == null ? null : toPointer(messagePath);
+        this.expectations = expectations;
+    }
+
+    /**
+     * Сообщение по пути JSON (например errors[0].message) равно одному из шаблонов
+     */
+    public static ErrorResponseValidator messageEqualTo(int statusCode, String messagePath, String... templates) {
+        return new ErrorResponseValidator(statusCode, messagePath, expectations(false, templates));
+    }
+
+    /**
+     * Сообщение по пути JSON содержит один из шаблонов
+     */
+    public static ErrorResponseValidator messageContains(int statusCode, String messagePath, String... templates) {
+        return new ErrorResponseValidator(statusCode, messagePath, expectations(true, templates));
+    }
+
+    /**
+     * Тело ответа содержит один из шаблонов
+     */
+    public static ErrorResponseValidator bodyContains(int statusCode, String... templates) {
+        return new ErrorResponseValidator(statusCode, null, expectations(true, templates));
+    }
+
+    /**
+     * Дополнительный вариант сообщения (проверки объединяются через "или"), например для разных версий TeamCity
+     */
+    public ErrorResponseValidator orMessageEqualTo(String template) {
+        return or(new Expectation(MessageTemplate.compile(template), false));
+    }
+
+    public ErrorResponseValidator orMessageContains(String template) {
+        return or(new Expectation(MessageTemplate.compile(template), true));
+    }
+
+    public ResponseValidator bind(Object... arguments) {
+        return arguments.length == 0 ? withoutArguments : response -> validate(response, arguments);
+    }
+
+    public void validate(Response response, Object... arguments) {
+        if (response.getStatusCode() != statusCode) {
+            throw new AssertionError("Expected status code <%d> but was <%d>.\nBody: %s"
+                    .formatted(statusCode, response.getStatusCode(), response.asString()));
+        }
+        var actual = messagePointer == null ? response.asString() : readMessage(response);
+        for (var expectation : expectations) {
+            if (expectation.matches(actual, arguments)) {
+                return;
+            }
+        }
+        throw new AssertionError("%s doesn't match.\nExpected: %s\n  Actual: %s".formatted(
+                messagePath == null ? "Response body" : "JSON path " + messagePath,
+                expectations.stream().map(expectation -> expectation.describe(arguments))
+                        .collect(Collectors.joining(" or ")),
+                actual));
+    }
+
+    private String readMessage(Response response) {
+        JsonNode node;
+        try {
+            node = ModelMapper.getMapper().readTree(response.asByteArray()).at(messagePointer);
+        } catch (IOException e) {
+            throw new AssertionError("Response body is not JSON, cannot read " + messagePath
+                    + ".\nBody: " + response.asString(), e);
+        }
+        return node.isMissingNode() || node.isNull() ? null : node.asText();
+    }
+
+    private ErrorResponseValidator or(Expectation expectation) {
+        var combined = new ArrayList<>(expectations);
+        combined.add(expectation);
+        return new ErrorResponseValidator(statusCode, messagePath, List.copyOf(combined));
+    }
+
+    private static List<Expectation> expectations(boolean contains, String... templates) {
+        return Arrays.stream(templates)
+                .map(template -> new Expectation(MessageTemplate.compile(template), contains))
+                .toList();
+    }
+
+    /**
+     * errors[0].message -> /errors/0/message
+     */
+    private static JsonPointer toPointer(String path) {
+        return JsonPointer.compile("/" + path.replace("[", ".").replace("]", "").replace('.', '/'));
+    }
+
+    private record Expectation(MessageTemplate template, boolean contains) {
+
+        boolean matches(String actual, Object[] arguments) {
+            return contains ? template.isContainedIn(actual, arguments) : template.matches(actual, arguments);
+        }
+
+        String describe(Object[] arguments) {
+            return (contains ? "a string containing \"" : "\"") + template.format(arguments) + "\"";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.teamcity.api.validators;
+
+import java.util.ArrayList;
+
+/**
+ * Шаблон сообщения об ошибке с плейсхолдерами {0}, {1}, ... (другие фигурные скобки - обычный текст).
+ * Разбирается один раз при создании;
+ * сравнение с фактическим сообщением идет по частям шаблона и аргументам без сборки ожидаемой строки,
+ * ожидаемая строка форматируется только для текста ошибки.
+ */
+final class MessageTemplate {
+    private final String[] literals;
+    private final int[] argumentIndexes;
+
+    private MessageTemplate(String[] literals, int[] argumentIndexes) {
+        this.literals = literals;
+        this.argumentIndexes = argumentIndexes;
+    }
+
+    static MessageTemplate compile(String template) {
+        var literals = new ArrayList<String>();
+        var argumentIndexes = new ArrayList<Integer>();
+        var start = 0;
+        var open = template.indexOf('{');
+        while (open >= 0) {
+            var close = template.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            var index = template.substring(open + 1, close);
+            // Скобки не вокруг номера аргумента (например JSON) - обычный текст шаблона
+            if (index.isEmpty() || !index.chars().allMatch(Character::isDigit)) {
+                open = template.indexOf('{', open + 1);
+                continue;
+            }
+            literals.add(template.substring(start, open));
+            argumentIndexes.add(Integer.parseInt(index));
+            start = close + 1;
+            open = template.indexOf('{', start);
+        }
+        literals.add(template.substring(start));
+        return new MessageTemplate(literals.toArray(String[]::new),
+                argumentIndexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Совпадает ли actual с шаблоном целиком
+     */
+    boolean matches(String actual, Object[] arguments) {
+        return actual != null && matchesAt(actual, 0, arguments) == actual.length();
+    }
+
+    /**
+     * Содержит ли actual подставленный шаблон
+     */
+    boolean isContainedIn(String actual, Object[] arguments) {
+        if (actual == null) {
+            return false;
+        }
+        for (var from = actual.indexOf(literals[0]); from >= 0; from = actual.indexOf(literals[0], from + 1)) {
+            if (matchesAt(actual, from, arguments) >= 0) {
+                return true;
+            }
+            // Для пустой первой части (шаблон начинается с плейсхолдера) indexOf дальше конца строки
+            // снова вернет actual.length()
+            if (from >= actual.length()) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    String format(Object[] arguments) {
+        var result = new StringBuilder(literals[0]);
+        for (var i = 0; i < argumentIndexes.length; i++) {
+            result.append(arguments[argumentIndexes[i]]).append(literals[i + 1]);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Сравнивает шаблон с actual начиная с offset, возвращает позицию после совпадения или -1
+     */
+    private int matchesAt(String actual, int offset, Object[] arguments) {
+        var position = offset;
+        for (var i = 0; i <= argumentIndexes.length; i++) {
+            position = regionMatches(actual, position, literals[i]);
+            if (position >= 0 && i < argumentIndexes.length) {
+                position = regionMatches(actual, position, String.valueOf(arguments[argumentIndexes[i]]));
+            }
+            if (position < 0) {
+                return -1;
+            }
+        }
+        return position;
+    }
+
+    private static int regionMatches(String actual, int offset, String part) {
+        return actual.startsWith(part, offset) ? offset + part.length() : -1;
+    }
+}
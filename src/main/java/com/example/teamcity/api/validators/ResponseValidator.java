@@ -0,0 +1,12 @@
+package com.example.teamcity.api.validators;
+
+import io.restassured.response.Response;
+
+/**
+ * Проверка ответа с уже подставленными параметрами, см. {@link ValidationResponseSpecifications}
+ */
+@FunctionalInterface
+public interface ResponseValidator {
+
+    void validate(Response response);
+}
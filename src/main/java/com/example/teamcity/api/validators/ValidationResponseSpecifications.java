@@ -1,133 +1,106 @@
 package com.example.teamcity.api.validators;
 
-import io.restassured.builder.ResponseSpecBuilder;
-import io.restassured.specification.ResponseSpecification;
 import org.apache.http.HttpStatus;
-import org.hamcrest.Matchers;
 
+/**
+ * Реестр заранее собранных проверок ответов с ошибками: статус, путь и шаблон сообщения строятся один раз
+ * при загрузке класса, методы только подставляют id или имя.
+ */
 public class ValidationResponseSpecifications {
-
-    public static ResponseSpecification checkProjectWithIdAlreadyExist(String projectId) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_BAD_REQUEST);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project ID \"" + projectId + "\" is already used by another project"
-        ));
-        return responseSpecBuilder.build();
+    private static final String ERROR_MESSAGE = "errors[0].message";
+    private static final String ID_RULES = ". ID should start with a latin letter and contain only latin letters,"
+            + " digits and underscores (at most 225 characters).";
+
+    private static final ErrorResponseValidator PROJECT_ID_ALREADY_EXIST = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_BAD_REQUEST, ERROR_MESSAGE, "Project ID \"{0}\" is already used by another project");
+    private static final ErrorResponseValidator PROJECT_NAME_ALREADY_EXIST = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_BAD_REQUEST, ERROR_MESSAGE, "Project with this name already exists: {0}");
+    private static final ErrorResponseValidator EMPTY_NAME = ErrorResponseValidator.bodyContains(
+            HttpStatus.SC_BAD_REQUEST, "name cannot be empty");
+    private static final ErrorResponseValidator EMPTY_PROJECT_NAME = ErrorResponseValidator.bodyContains(
+            HttpStatus.SC_BAD_REQUEST, "Project name cannot be empty");
+    private static final ErrorResponseValidator SPACE_NAME = ErrorResponseValidator.bodyContains(
+            HttpStatus.SC_INTERNAL_SERVER_ERROR, "Given project name is empty.");
+    private static final ErrorResponseValidator INVALID_ID = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_INTERNAL_SERVER_ERROR, ERROR_MESSAGE,
+            "Project ID \"{0}\" is invalid: contains unsupported character '#'" + ID_RULES);
+    private static final ErrorResponseValidator EMPTY_ID = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_INTERNAL_SERVER_ERROR, ERROR_MESSAGE, "Project ID must not be empty.");
+    private static final ErrorResponseValidator START_WITH_DIGIT_ID = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_INTERNAL_SERVER_ERROR, ERROR_MESSAGE,
+            "Project ID \"{0}\" is invalid: starts with non-letter character '1'" + ID_RULES);
+    private static final ErrorResponseValidator INVALID_SYMBOL_ID = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_INTERNAL_SERVER_ERROR, ERROR_MESSAGE,
+            "Project ID \"{0}\" is invalid: contains unsupported character '@'" + ID_RULES);
+    private static final ErrorResponseValidator NON_LATIN_ID = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_INTERNAL_SERVER_ERROR, ERROR_MESSAGE,
+            "Project ID \"{0}\" is invalid: contains non-latin letter '{1}'" + ID_RULES);
+    private static final ErrorResponseValidator TOO_LONG_ID = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_INTERNAL_SERVER_ERROR, ERROR_MESSAGE,
+            "Project ID \"{0}\" is invalid: it is 226 characters long while the maximum length is 225" + ID_RULES);
+    private static final ErrorResponseValidator NON_LETTER_ID = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_INTERNAL_SERVER_ERROR, ERROR_MESSAGE,
+            "Project ID \"{0}\" is invalid: starts with non-letter character '{1}'" + ID_RULES);
+    private static final ErrorResponseValidator PROJECT_NOT_FOUND = ErrorResponseValidator.messageContains(
+                    HttpStatus.SC_NOT_FOUND, ERROR_MESSAGE, "Project cannot be found by external id '{0}'")
+            .orMessageEqualTo("No project found by name or internal/external id '{0}'.");
+    private static final ErrorResponseValidator ACCESS_DENIED_FOR_CREATE_PROJECT = ErrorResponseValidator.messageEqualTo(
+            HttpStatus.SC_FORBIDDEN, ERROR_MESSAGE,
+            "You do not have \"Create subproject\" permission in project with internal id: _Root");
+
+    public static ResponseValidator checkProjectWithIdAlreadyExist(String projectId) {
+        return PROJECT_ID_ALREADY_EXIST.bind(projectId);
     }
 
-    public static ResponseSpecification checkProjectWithNameAlreadyExist(String projectName) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_BAD_REQUEST);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project with this name already exists: " + projectName
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithNameAlreadyExist(String projectName) {
+        return PROJECT_NAME_ALREADY_EXIST.bind(projectName);
     }
 
-    public static ResponseSpecification checkProjectWithEmptyName() {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_BAD_REQUEST);
-        responseSpecBuilder.expectBody(Matchers.containsString("name cannot be empty"));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithEmptyName() {
+        return EMPTY_NAME.bind();
     }
 
-    public static ResponseSpecification checkProjectWithEmptyProjectName(String id) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_BAD_REQUEST);
-        responseSpecBuilder.expectBody(Matchers.containsString("Project name cannot be empty"));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithEmptyProjectName(String id) {
+        return EMPTY_PROJECT_NAME.bind();
     }
 
-    public static ResponseSpecification checkProjectWithSpaceName() {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
-        responseSpecBuilder.expectBody(Matchers.containsString("Given project name is empty."));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithSpaceName() {
+        return SPACE_NAME.bind();
     }
 
-    public static ResponseSpecification checkProjectWithInvalidId(String invalidId) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project ID \"" + invalidId + "\" is invalid: contains unsupported character '#'. ID should start with a latin letter and contain only latin letters, digits and underscores (at most 225 characters)."
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithInvalidId(String invalidId) {
+        return INVALID_ID.bind(invalidId);
     }
 
-    public static ResponseSpecification checkProjectWithEmptyId() {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project ID must not be empty."
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithEmptyId() {
+        return EMPTY_ID.bind();
     }
 
-    public static ResponseSpecification checkProjectWithStartWithNonLetterId(String invalidId) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project ID \"" + invalidId + "\" is invalid: starts with non-letter character '1'. ID should start with a latin letter and contain only latin letters, digits and underscores (at most 225 characters)."
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithStartWithNonLetterId(String invalidId) {
+        return START_WITH_DIGIT_ID.bind(invalidId);
     }
 
-    public static ResponseSpecification checkProjectWithInvalidSymbolId(String invalidId) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project ID \"" + invalidId + "\" is invalid: contains unsupported character '@'. ID should start with a latin letter and contain only latin letters, digits and underscores (at most 225 characters)."
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithInvalidSymbolId(String invalidId) {
+        return INVALID_SYMBOL_ID.bind(invalidId);
     }
 
-    public static ResponseSpecification checkProjectWithNonLatinId(String invalidId) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project ID \"" + invalidId + "\" is invalid: contains non-latin letter '" + invalidId.charAt(0) + "'. ID should start with a latin letter and contain only latin letters, digits and underscores (at most 225 characters)."
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWithNonLatinId(String invalidId) {
+        return NON_LATIN_ID.bind(invalidId, invalidId.charAt(0));
     }
 
-    public static ResponseSpecification checkProjectWith256Id(String invalidId) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project ID \"" + invalidId + "\" is invalid: it is 226 characters long while the maximum length is 225. ID should start with a latin letter and contain only latin letters, digits and underscores (at most 225 characters)."
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectWith256Id(String invalidId) {
+        return TOO_LONG_ID.bind(invalidId);
     }
 
-    public static ResponseSpecification checkProjectNonLetterId(String invalidId) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "Project ID \"" + invalidId + "\" is invalid: starts with non-letter character '" + invalidId.charAt(0) + "'. ID should start with a latin letter and contain only latin letters, digits and underscores (at most 225 characters)."
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectNonLetterId(String invalidId) {
+        return NON_LETTER_ID.bind(invalidId, invalidId.charAt(0));
     }
 
-    public static ResponseSpecification checkProjectNotFoundById(String projectId) {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_NOT_FOUND);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.anyOf(
-                Matchers.containsString("Project cannot be found by external id '" + projectId + "'"),
-                Matchers.equalTo("No project found by name or internal/external id '" + projectId + "'.")
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkProjectNotFoundById(String projectId) {
+        return PROJECT_NOT_FOUND.bind(projectId);
     }
 
-
-    public static ResponseSpecification checkAccessDeniedForCreateProject() {
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        responseSpecBuilder.expectStatusCode(HttpStatus.SC_FORBIDDEN);
-        responseSpecBuilder.expectBody("errors[0].message", Matchers.equalTo(
-                "You do not have \"Create subproject\" permission in project with internal id: _Root"
-        ));
-        return responseSpecBuilder.build();
+    public static ResponseValidator checkAccessDeniedForCreateProject() {
+        return ACCESS_DENIED_FOR_CREATE_PROJECT.bind();
     }
-
-
-}
\ No newline at end of file
+}
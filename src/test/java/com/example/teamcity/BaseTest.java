@@ -1,31 +1,140 @@
 package com.example.teamcity;
 
+import com.example.teamcity.api.annotations.PooledFixtures;
+import com.example.teamcity.api.annotations.UsesResource;
+import com.example.teamcity.api.cleanup.CleanupJournal;
+import com.example.teamcity.api.concurrent.ResourceScheduler;
+import com.example.teamcity.api.extensions.CoverageFlushListener;
+import com.example.teamcity.api.extensions.FailedRequestLogListener;
+import com.example.teamcity.api.extensions.LatencyBudgetListener;
+import com.example.teamcity.api.extensions.RandomSeedListener;
+import com.example.teamcity.api.extensions.WireMockListener;
+import com.example.teamcity.api.fixtures.FixtureLease;
+import com.example.teamcity.api.fixtures.FixturePool;
+import com.example.teamcity.api.generators.RandomData;
 import com.example.teamcity.api.generators.TestDataStorage;
+import com.example.teamcity.api.metrics.RequestMetrics;
 import com.example.teamcity.api.models.TestData;
 import com.example.teamcity.api.requests.CheckedRequests;
-import com.example.teamcity.api.spec.Specifications;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Listeners;
 import org.testng.asserts.SoftAssert;
 
+import java.lang.reflect.Method;
+
 import static com.example.teamcity.api.generators.TestDataGenerator.generate;
 
+@Listeners({FailedRequestLogListener.class, CoverageFlushListener.class, WireMockListener.class,
+        LatencyBudgetListener.class, RandomSeedListener.class})
 public class BaseTest {
-    protected SoftAssert softy;
-    protected CheckedRequests superUserCheckRequests = new CheckedRequests(Specifications.superUserAuth());
-    public TestData testData;
+    protected CheckedRequests superUserCheckRequests = CheckedRequests.forSuperUser();
+    // Состояние вызова теста хранится по потокам: при parallel="methods" методы одного экземпляра класса
+    // выполняются параллельно, а BeforeMethod, тест и AfterMethod одного вызова - в одном потоке
+    private final ThreadLocal<SoftAssert> softy = new ThreadLocal<>();
+    private final ThreadLocal<TestData> testData = new ThreadLocal<>();
+    private final ThreadLocal<PooledFixtures> pooledFixtures = new ThreadLocal<>();
+    private final ThreadLocal<FixtureLease> fixtureLease = new ThreadLocal<>();
+    // Общий для всех классов: у пропущенного теста (упала настройка сьюта) AfterMethod не вызывается, и его ресурсы
+    // освобождает следующий тест этого потока до того, как ждать своих. Поток не держит больше одного набора ресурсов
+    private static final ThreadLocal<ResourceScheduler.Lease> RESOURCE_LEASE = new ThreadLocal<>();
+
+    @BeforeSuite(alwaysRun = true)
+    public void recoverCleanupJournal() {
+        // Удаляем сущности из журналов прошлых прогонов, завершившихся до удаления тестовых данных
+        try {
+            CleanupJournal.recoverAbandoned();
+        } catch (RuntimeException e) {
+            System.err.println("Cleanup journal recovery failed: " + e.getMessage());
+        }
+    }
 
     @BeforeMethod(alwaysRun = true)
-    public void beforeTest() {
-        softy = new SoftAssert();
-        testData = generate();
+    public void beforeTest(Method method, Object[] parameters) {
+        // Ресурсы (@UsesResource) занимаются первым BeforeMethod и освобождаются последним AfterMethod,
+        // поэтому покрывают и методы подклассов, например закрытие браузера в BaseUiTest
+        var usesResource = method.isAnnotationPresent(UsesResource.class)
+                ? method.getAnnotation(UsesResource.class)
+                : getClass().getAnnotation(UsesResource.class);
+        releaseResources();
+        if (usesResource != null) {
+            RESOURCE_LEASE.set(ResourceScheduler.acquire(usesResource.value()));
+        }
+        softy.set(new SoftAssert());
+        // Данные теста зависят только от зерна сьюта и вызова теста, см. RandomSeedListener
+        RandomData.reseed(RandomData.testId(method, parameters));
+        testData.set(generate());
+    }
+
+    private static void releaseResources() {
+        var resources = RESOURCE_LEASE.get();
+        if (resources != null) {
+            RESOURCE_LEASE.remove();
+            resources.close();
+        }
+    }
+
+    protected SoftAssert getSofty() {
+        return softy.get();
+    }
+
+    public TestData getTestData() {
+        return testData.get();
+    }
+
+    // Без alwaysRun: если настройка сьюта упала и тест будет пропущен, сущности из пула не берутся
+    @BeforeMethod(dependsOnMethods = "beforeTest")
+    public void leasePooledFixtures(Method method, ITestResult result) {
+        // Для тестов с @PooledFixtures пользователь и проект берутся из пула уже созданными
+        var fixtures = method.isAnnotationPresent(PooledFixtures.class)
+                ? method.getAnnotation(PooledFixtures.class)
+                : method.getDeclaringClass().getAnnotation(PooledFixtures.class);
+        if (fixtures != null) {
+            var lease = FixturePool.getInstance().lease(fixtures.user(), fixtures.project());
+            pooledFixtures.set(fixtures);
+            fixtureLease.set(lease);
+            lease.applyTo(getTestData());
+            // Без random.seed сущности пула не воспроизводятся зерном теста, их выводит RandomSeedListener
+            result.setAttribute(RandomSeedListener.POOLED_FIXTURES, lease.toString());
+        }
     }
 
     @AfterMethod(alwaysRun = true)
-    public void afterTest() {
-        softy.assertAll();
-        TestDataStorage.getStorage().deleteCreatedEntities();
+    public void afterTest(ITestResult result) {
+        try {
+            if (getSofty() != null) {
+                getSofty().assertAll();
+            }
+        } finally {
+            try {
+                // Хранилище привязано к потоку теста, удаляются только сущности, созданные этим тестом
+                TestDataStorage.getStorage().deleteCreatedEntities();
+                // Сущности пула возвращаются после удаления созданного тестом, чтобы следующий тест получил их чистыми
+                var lease = fixtureLease.get();
+                if (lease != null) {
+                    FixturePool.getInstance().release(lease, !result.isSuccess() || pooledFixtures.get().dirties());
+                }
+            } finally {
+                releaseResources();
+                softy.remove();
+                testData.remove();
+                pooledFixtures.remove();
+                fixtureLease.remove();
+            }
+        }
     }
 
+    @AfterSuite(alwaysRun = true)
+    public void shutdownFixturePool() {
+        FixturePool.shutdown();
+    }
 
+    // После удаления сущностей пула, чтобы в сводку попали и запросы очистки
+    @AfterSuite(alwaysRun = true, dependsOnMethods = "shutdownFixturePool")
+    public void exportRequestMetrics() {
+        RequestMetrics.export();
+    }
 }
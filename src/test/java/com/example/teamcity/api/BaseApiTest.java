@@ -1,6 +1,9 @@
 package com.example.teamcity.api;
 
 import com.example.teamcity.BaseTest;
+import com.example.teamcity.api.annotations.UsesResource;
+import com.example.teamcity.api.cleanup.OrphanSweeper;
+import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.models.AuthModules;
 import com.example.teamcity.api.models.ServerAuthSettings;
 import com.example.teamcity.api.requests.ServerAuthRequest;
@@ -10,11 +13,25 @@ import org.testng.annotations.BeforeSuite;
 
 import static com.example.teamcity.api.generators.TestDataGenerator.generate;
 
+@UsesResource("teamcity")
 public class BaseApiTest extends BaseTest {
     private final ServerAuthRequest serverAuthRequest = new ServerAuthRequest(Specifications.superUserAuth());
     private AuthModules authModules;
     private boolean perProjectPermissions;
 
+    @BeforeSuite(alwaysRun = true)
+    public void sweepOrphanedEntities() {
+        // Удаляем сущности, оставшиеся после прошлых аварийно завершенных прогонов; ошибка уборки не валит сьют.
+        // По умолчанию выключено: на общем сервере sweeper удалил бы сущности параллельных прогонов
+        if (Boolean.parseBoolean(Config.getProperty("sweeper.beforeSuite", "false"))) {
+            try {
+                OrphanSweeper.sweep();
+            } catch (RuntimeException e) {
+                System.err.println("Orphan sweep failed: " + e.getMessage());
+            }
+        }
+    }
+
     @BeforeSuite(alwaysRun = true)
     public void setUpServerAuthSettings() {
         // Получаем текущие настройки perProjectPermissions
@@ -1,15 +1,21 @@
 package com.example.teamcity.api;
 
+import com.example.teamcity.api.annotations.PooledFixtures;
 import com.example.teamcity.api.models.BuildType;
 import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.requests.AsyncCheckedRequests;
+import com.example.teamcity.api.requests.AsyncRequestExecutor;
 import com.example.teamcity.api.requests.CheckedRequests;
-import com.example.teamcity.api.requests.unchecked.UncheckedBase;
-import com.example.teamcity.api.spec.Specifications;
+import com.example.teamcity.api.requests.FieldProjection;
+import com.example.teamcity.api.requests.UncheckedRequests;
 import org.apache.http.HttpStatus;
 import org.hamcrest.Matchers;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.example.teamcity.api.enums.Endpoint.*;
 import static com.example.teamcity.api.generators.TestDataGenerator.generate;
@@ -18,38 +24,84 @@ import static io.qameta.allure.Allure.step;
 
 @Test(groups = {"Regression"})
 public class BuildTypeTest extends BaseApiTest {
+    @PooledFixtures
     @Test(description = "User should be able to create build type", groups = {"Positive", "CRUD"})
     public void userCreatesBuildTypeTest() {
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
+
+        userCheckRequests.getRequest(BUILD_TYPES).create(getTestData().getBuildType());
+
+        var createdBuildType = userCheckRequests.<BuildType>getRequest(BUILD_TYPES).read(getTestData().getBuildType().getId());
+
+        getSofty().assertEquals(getTestData().getBuildType().getName(), createdBuildType.getName(), "Build type name is not correct");
+    }
+
+    @Test(description = "User should be able to create project and build types asynchronously", groups = {"Positive", "CRUD"})
+    public void userCreatesBuildTypesAsyncTest() {
+        // Данные теста привязаны к его потоку, а продолжения future выполняются на пуле async запросов
+        var testData = getTestData();
         superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-        var userCheckRequests = new CheckedRequests(Specifications.authSpec(testData.getUser()));
+        var userAsyncRequests = AsyncCheckedRequests.forUser(testData.getUser());
+
+        var createdBuildTypes = userAsyncRequests.<Project>getRequest(PROJECTS).create(testData.getProject())
+                .thenCompose(project -> AsyncRequestExecutor.allOf(List.of(
+                        userAsyncRequests.<BuildType>getRequest(BUILD_TYPES).create(testData.getBuildType()),
+                        userAsyncRequests.<BuildType>getRequest(BUILD_TYPES).create(
+                                generate(List.of(testData.getProject()), BuildType.class)))))
+                .join();
+
+        getSofty().assertEquals(createdBuildTypes.size(), 2, "Not all build types were created");
+        getSofty().assertEquals(createdBuildTypes.get(0).getName(), testData.getBuildType().getName(),
+                "Build type name is not correct");
+    }
 
-        userCheckRequests.<Project>getRequest(PROJECTS).create(testData.getProject());
+    @PooledFixtures
+    @Test(description = "User should be able to create build types in one batch", groups = {"Positive", "CRUD"})
+    public void userCreatesBuildTypesBatchTest() {
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
 
-        userCheckRequests.getRequest(BUILD_TYPES).create(testData.getBuildType());
+        var buildTypes = Stream.generate(() -> generate(List.of(getTestData().getProject()), BuildType.class))
+                .limit(10)
+                .toList();
+        var result = userCheckRequests.<BuildType>getRequest(BUILD_TYPES).createAll(buildTypes).assertNoFailures();
 
-        var createdBuildType = userCheckRequests.<BuildType>getRequest(BUILD_TYPES).read(testData.getBuildType().getId());
+        getSofty().assertEquals(result.results().stream().map(BuildType::getId).toList(),
+                buildTypes.stream().map(BuildType::getId).toList(), "Build types are not returned in input order");
+    }
 
-        softy.assertEquals(testData.getBuildType().getName(), createdBuildType.getName(), "Build type name is not correct");
+    @PooledFixtures
+    @Test(description = "User should be able to list project build types page by page", groups = {"Positive", "CRUD"})
+    public void userStreamsProjectBuildTypesTest() {
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
+
+        var buildTypes = Stream.generate(() -> generate(List.of(getTestData().getProject()), BuildType.class))
+                .limit(5)
+                .toList();
+        userCheckRequests.<BuildType>getRequest(BUILD_TYPES).createAll(buildTypes).assertNoFailures();
+
+        try (var streamedBuildTypes = userCheckRequests.<BuildType>getRequest(BUILD_TYPES).stream(
+                "affectedProject:(id:" + getTestData().getProject().getId() + ")", FieldProjection.of("id", "name"), 2)) {
+            getSofty().assertEquals(streamedBuildTypes.map(BuildType::getId).collect(Collectors.toSet()),
+                    buildTypes.stream().map(BuildType::getId).collect(Collectors.toSet()),
+                    "Streamed build types do not match created ones");
+        }
     }
 
+    @PooledFixtures
     @Test(description = "User should not be able to create two build types with the same id", groups = {"Negative", "CRUD"})
     public void userCreatesTwoBuildTypesWithTheSameIdTest() {
-        var buildTypeWithSameId = generate(Arrays.asList(testData.getProject()), BuildType.class, testData.getBuildType().getId());
-
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
-        var userCheckRequests = new CheckedRequests(Specifications.authSpec(testData.getUser()));
+        var buildTypeWithSameId = generate(Arrays.asList(getTestData().getProject()), BuildType.class, getTestData().getBuildType().getId());
 
-        userCheckRequests.<Project>getRequest(PROJECTS).create(testData.getProject());
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
 
-        userCheckRequests.getRequest(BUILD_TYPES).create(testData.getBuildType());
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), BUILD_TYPES)
+        userCheckRequests.getRequest(BUILD_TYPES).create(getTestData().getBuildType());
+        UncheckedRequests.forUser(getTestData().getUser()).getRequest(BUILD_TYPES)
                 .create(buildTypeWithSameId)
                 .then()
                 .statusCode(HttpStatus.SC_BAD_REQUEST)
                 .body("errors[0].message", Matchers.equalTo(
                         "The build configuration / template ID \"%s\" is already used by another configuration or template"
-                                .formatted(testData.getBuildType().getId())
+                                .formatted(getTestData().getBuildType().getId())
                 ));
     }
 
@@ -0,0 +1,39 @@
+package com.example.teamcity.api;
+
+import com.example.teamcity.BaseTest;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.requests.checked.CheckedBase;
+import com.example.teamcity.api.spec.Specifications;
+import com.example.teamcity.common.WireMock;
+import org.apache.http.HttpStatus;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.stream.Stream;
+
+import static com.example.teamcity.api.enums.Endpoint.PROJECTS;
+import static com.example.teamcity.api.generators.TestDataGenerator.generate;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+
+@Test(groups = {"Regression"})
+public class MockServerTest extends BaseTest {
+
+    @DataProvider(name = "projectDataProvider", parallel = true)
+    public Object[][] projectDataProvider() {
+        return Stream.generate(() -> new Object[]{generate(Project.class)})
+                .limit(4)
+                .toArray(Object[][]::new);
+    }
+
+    @Test(description = "Parallel tests should get stubs of their own mock server", groups = {"Positive", "Mock"},
+            dataProvider = "projectDataProvider")
+    public void parallelTestsGetOwnMockServerStubsTest(Project project) {
+        // Все потоки заглушают один и тот же путь, но каждый должен получить свой проект
+        WireMock.setupServer(get(urlPathEqualTo(PROJECTS.getUrl() + "/current")), HttpStatus.SC_OK, project);
+
+        var mockedProject = new CheckedBase<Project>(Specifications.mockSpec(), PROJECTS).read("current");
+
+        getSofty().assertEquals(mockedProject, project, "Mock server returned a stub of another test");
+    }
+}
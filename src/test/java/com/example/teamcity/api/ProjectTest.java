@@ -1,12 +1,15 @@
 package com.example.teamcity.api;
 
+import com.example.teamcity.api.annotations.PooledFixtures;
 import com.example.teamcity.api.generators.TestDataGenerator;
 import com.example.teamcity.api.models.*;
 import com.example.teamcity.api.requests.CheckedRequests;
+import com.example.teamcity.api.requests.FieldProjection;
+import com.example.teamcity.api.requests.UncheckedRequests;
 import com.example.teamcity.api.requests.unchecked.UncheckedBase;
 import com.example.teamcity.api.spec.Specifications;
+import com.example.teamcity.api.validators.ResponseValidator;
 import com.example.teamcity.api.validators.ValidationResponseSpecifications;
-import io.restassured.specification.ResponseSpecification;
 import org.apache.http.HttpStatus;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -21,16 +24,31 @@ import static com.example.teamcity.api.generators.TestDataGenerator.generate;
 @Test(groups = {"Regression"})
 public class ProjectTest extends BaseApiTest {
 
+    @PooledFixtures(project = false)
     @Test(description = "User should be able to create project", groups = {"Positive", "CRUD"})
     public void userCreatesProjectTest() {
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-        var userCheckRequests = new CheckedRequests(Specifications.authSpec(testData.getUser()));
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
 
-        userCheckRequests.<Project>getRequest(PROJECTS).create(testData.getProject());
+        userCheckRequests.<Project>getRequest(PROJECTS).create(getTestData().getProject());
 
-        var createdProject = userCheckRequests.<Project>getRequest(PROJECTS).read(testData.getProject().getId());
+        var createdProject = userCheckRequests.<Project>getRequest(PROJECTS).read(getTestData().getProject().getId());
 
-        softy.assertEquals(createdProject, testData.getProject());
+        getSofty().assertEquals(createdProject, getTestData().getProject());
+    }
+
+    @PooledFixtures(project = false)
+    @Test(description = "User should be able to read only requested project fields", groups = {"Positive", "CRUD"})
+    public void userReadsProjectWithFieldProjectionTest() {
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
+
+        userCheckRequests.<Project>getRequest(PROJECTS).create(getTestData().getProject());
+
+        var projectedProject = userCheckRequests.<Project>getRequest(PROJECTS)
+                .read(getTestData().getProject().getId(), FieldProjection.of("id", "name"));
+
+        getSofty().assertEquals(projectedProject.getId(), getTestData().getProject().getId(), "Project id is not correct");
+        getSofty().assertEquals(projectedProject.getName(), getTestData().getProject().getName(), "Project name is not correct");
+        getSofty().assertNull(projectedProject.getParentProject(), "Parent project should not be returned");
     }
 
     @DataProvider(name = "positiveProjectCreationDataProvider")
@@ -45,11 +63,11 @@ public class ProjectTest extends BaseApiTest {
         };
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should be able to create project with correct data", groups = {"Positive", "CRUD"},
             dataProvider = "positiveProjectCreationDataProvider")
-    public void userCreatesProjectWithCorrectDataTest(String description, String projectId, String projectName, boolean checkNameOnly) {
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-        var userCheckRequests = new CheckedRequests(Specifications.authSpec(testData.getUser()));
+    public void userCreatesProjectWithCorrectDataTest(String description, String projectId, String projectName) {
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
 
         var project = generate(Project.class);
         project.setId(projectId);
@@ -58,13 +76,13 @@ public class ProjectTest extends BaseApiTest {
         userCheckRequests.<Project>getRequest(PROJECTS).create(project);
 
         var createdProject = userCheckRequests.<Project>getRequest(PROJECTS).read(project.getId());
-        softy.assertEquals(createdProject, project, "Project creation failed for " + description);
+        getSofty().assertEquals(createdProject, project, "Project creation failed for " + description);
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should be able to create project with long name and verify name", groups = {"Negative", "CRUD"})
     public void userCreatesProjectWithLongNameTest() {
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-        var userCheckRequests = new CheckedRequests(Specifications.authSpec(testData.getUser()));
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
 
         var project = generate(Project.class);
         project.setId(getString());
@@ -73,152 +91,129 @@ public class ProjectTest extends BaseApiTest {
         userCheckRequests.<Project>getRequest(PROJECTS).create(project);
 
         var createdProject = userCheckRequests.<Project>getRequest(PROJECTS).read(project.getId());
-        softy.assertEquals(createdProject.getName(), project.getName(), "Project name is not correct for long name");
+        getSofty().assertEquals(createdProject.getName(), project.getName(), "Project name is not correct for long name");
     }
 
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create two projects with the same id", groups = {"Negative", "CRUD"})
     public void userCreatesTwoProjectsWithTheSameIdTest() {
         var projectWithSameId = generate(Project.class);
-        projectWithSameId.setId(testData.getProject().getId());
-
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
+        projectWithSameId.setId(getTestData().getProject().getId());
 
-        var userCheckRequests = new CheckedRequests(Specifications.authSpec(testData.getUser()));
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
 
-        userCheckRequests.<Project>getRequest(PROJECTS).create(testData.getProject());
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(projectWithSameId)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectWithIdAlreadyExist(testData.getProject().getId()));
+        userCheckRequests.<Project>getRequest(PROJECTS).create(getTestData().getProject());
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(projectWithSameId);
+        ValidationResponseSpecifications.checkProjectWithIdAlreadyExist(getTestData().getProject().getId()).validate(response);
     }
 
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create a copy of non existing project", groups = {"Negative", "CRUD"})
     public void userCreatesCopyOfNonExistingProjectTest() {
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-        new CheckedRequests(Specifications.authSpec(testData.getUser()));
-
         var copyProject = generate(Project.class);
         copyProject.setId(getString());
         copyProject.setName(getString());
         copyProject.setSourceProject(new SourceProject(getString()));
 
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(copyProject)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectNotFoundById(
-                        copyProject.getSourceProject().getLocator()
-                ));
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(copyProject);
+        ValidationResponseSpecifications.checkProjectNotFoundById(copyProject.getSourceProject().getLocator()).validate(response);
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create a project with empty id", groups = {"Negative", "CRUD"})
     public void userCreatesProjectWithEmptyIdTest() {
         var emptyIdProject = generate(Project.class);
         emptyIdProject.setId("");
 
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(emptyIdProject)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectWithEmptyId());
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(emptyIdProject);
+        ValidationResponseSpecifications.checkProjectWithEmptyId().validate(response);
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create a project if id starts with number", groups = {"Negative", "CRUD"})
     public void userCreatesProjectWithIdStartingWithNumberTest() {
         var invalidIdProject = generate(Project.class);
         invalidIdProject.setId("1" + getString());
 
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(invalidIdProject)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectWithStartWithNonLetterId(invalidIdProject.getId()));
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(invalidIdProject);
+        ValidationResponseSpecifications.checkProjectWithStartWithNonLetterId(invalidIdProject.getId()).validate(response);
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create a project if id includes invalid symbols", groups = {"Negative", "CRUD"})
     public void userCreatesProjectWithInvalidSymbolsIdTest() {
         var invalidIdProject = generate(Project.class);
         invalidIdProject.setId("test@id" + getString());
 
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(invalidIdProject)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectWithInvalidSymbolId(invalidIdProject.getId()));
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(invalidIdProject);
+        ValidationResponseSpecifications.checkProjectWithInvalidSymbolId(invalidIdProject.getId()).validate(response);
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create a project if id cyrillic symbols", groups = {"Negative", "CRUD"})
     public void userCreatesProjectWithCyrillicIdTest() {
         var invalidIdProject = generate(Project.class);
         invalidIdProject.setId("тест");
 
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(invalidIdProject)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectWithNonLatinId("тест"));
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(invalidIdProject);
+        ValidationResponseSpecifications.checkProjectWithNonLatinId("тест").validate(response);
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create a project if id has more than 225 symbols", groups = {"Negative", "CRUD"})
     public void userCreatesProjectWithOver225IdSymbolsTest() {
         var invalidIdProject = generate(Project.class);
         invalidIdProject.setId("a".repeat(226));
 
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(invalidIdProject)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectWith256Id("a".repeat(226)));
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(invalidIdProject);
+        ValidationResponseSpecifications.checkProjectWith256Id("a".repeat(226)).validate(response);
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create a project if id starts with _", groups = {"Negative", "CRUD"})
     public void userCreatesProjectWithIdStartingWithUnderscoreTest() {
         var invalidIdProject = generate(Project.class);
         invalidIdProject.setId("_test" + getString());
 
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(invalidIdProject)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectNonLetterId(invalidIdProject.getId()));
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(invalidIdProject);
+        ValidationResponseSpecifications.checkProjectNonLetterId(invalidIdProject.getId()).validate(response);
     }
 
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create two projects with the same name", groups = {"Negative", "CRUD"})
     public void userCreatesTwoProjectsWithTheSameNameTest() {
         var projectWithSameName = generate(Project.class);
-        projectWithSameName.setName(testData.getProject().getName());
-
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
+        projectWithSameName.setName(getTestData().getProject().getName());
 
-        var userCheckRequests = new CheckedRequests(Specifications.authSpec(testData.getUser()));
+        var userCheckRequests = CheckedRequests.forUser(getTestData().getUser());
 
-        userCheckRequests.<Project>getRequest(PROJECTS).create(testData.getProject());
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(projectWithSameName)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectWithNameAlreadyExist(testData.getProject().getName()));
+        userCheckRequests.<Project>getRequest(PROJECTS).create(getTestData().getProject());
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(projectWithSameName);
+        ValidationResponseSpecifications.checkProjectWithNameAlreadyExist(getTestData().getProject().getName()).validate(response);
     }
 
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create project with invalid ID", groups = {"Negative", "CRUD"})
     public void userCreatesProjectWithInvalidIdTest() {
         var invalidIdProject = generate(Project.class);
         invalidIdProject.setId("invalid#id");
 
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(invalidIdProject)
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectWithInvalidId("invalid#id"));
+        var response = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(invalidIdProject);
+        ValidationResponseSpecifications.checkProjectWithInvalidId("invalid#id").validate(response);
     }
 
 
@@ -241,10 +236,9 @@ public class ProjectTest extends BaseApiTest {
 
         var project = generate(Project.class);
         project.setId(getString());
-        new UncheckedBase(Specifications.authSpec(user), PROJECTS)
-                .create(project)
-                .then()
-                .spec(ValidationResponseSpecifications.checkAccessDeniedForCreateProject());
+        var response = UncheckedRequests.forUser(user).getRequest(PROJECTS)
+                .create(project);
+        ValidationResponseSpecifications.checkAccessDeniedForCreateProject().validate(response);
     }
 
     @Test(description = "Unauthorized user should not be able to create project", groups = {"Negative", "CRUD"})
@@ -265,24 +259,21 @@ public class ProjectTest extends BaseApiTest {
         };
     }
 
+    @PooledFixtures(project = false)
     @Test(description = "User should not be able to create project with invalid name", groups = {"Negative", "CRUD"},
             dataProvider = "negativeNameProjectCreationDataProvider")
-    public void userCreatesProjectWithInvalidNameTest(String description, String projectId, String projectName, ResponseSpecification spec) {
-        superUserCheckRequests.getRequest(USERS).create(testData.getUser());
-
+    public void userCreatesProjectWithInvalidNameTest(String description, String projectId, String projectName, ResponseValidator validator) {
         var project = generate(Project.class);
         project.setId(projectId);
         project.setName(projectName);
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .create(project)
-                .then()
-                .spec(spec);
+        var createResponse = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .create(project);
+        validator.validate(createResponse);
 
 
-        new UncheckedBase(Specifications.authSpec(testData.getUser()), PROJECTS)
-                .read(project.getId())
-                .then()
-                .spec(ValidationResponseSpecifications.checkProjectNotFoundById(project.getId()));
+        var readResponse = UncheckedRequests.forUser(getTestData().getUser()).getRequest(PROJECTS)
+                .read(project.getId());
+        ValidationResponseSpecifications.checkProjectNotFoundById(project.getId()).validate(readResponse);
     }
 
 
@@ -0,0 +1,16 @@
+package com.example.teamcity.api.extensions;
+
+import com.example.teamcity.api.spec.BufferedCoverageOutputWriter;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Дописывает накопленный swagger-coverage вывод в конце сьюта
+ */
+public class CoverageFlushListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        BufferedCoverageOutputWriter.getInstance().flush();
+    }
+}
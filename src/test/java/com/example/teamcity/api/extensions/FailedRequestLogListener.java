@@ -0,0 +1,28 @@
+package com.example.teamcity.api.extensions;
+
+import com.example.teamcity.api.spec.RingBufferLoggingFilter;
+import org.testng.IConfigurationListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Выводит буфер последних запросов потока при падении теста или конфигурационного метода
+ * (актуально для logging.mode=on-failure-only, в остальных режимах буфер пуст)
+ */
+public class FailedRequestLogListener implements ITestListener, IConfigurationListener {
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        RingBufferLoggingFilter.clear();
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        RingBufferLoggingFilter.replay(System.out);
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result) {
+        RingBufferLoggingFilter.replay(System.out);
+    }
+}
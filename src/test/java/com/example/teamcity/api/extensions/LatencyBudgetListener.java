@@ -0,0 +1,45 @@
+package com.example.teamcity.api.extensions;
+
+import com.example.teamcity.api.annotations.LatencyBudget;
+import com.example.teamcity.api.budget.BudgetMode;
+import com.example.teamcity.api.budget.LatencyBudgets;
+import io.qameta.allure.Allure;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Записывает HTTP запросы тестового метода (без BeforeMethod/AfterMethod) и проверяет их по бюджетам
+ * {@link LatencyBudgets}. Превышения прикладываются к Allure, при budget.mode=fail успешный тест падает.
+ */
+public class LatencyBudgetListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && LatencyBudgets.getMode() != BudgetMode.OFF) {
+            var javaMethod = method.getTestMethod().getConstructorOrMethod().getMethod();
+            var budget = javaMethod.isAnnotationPresent(LatencyBudget.class)
+                    ? javaMethod.getAnnotation(LatencyBudget.class)
+                    : javaMethod.getDeclaringClass().getAnnotation(LatencyBudget.class);
+            LatencyBudgets.startTest(budget != null ? budget.testMillis() : LatencyBudgets.getDefaultTestMillis());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod() || LatencyBudgets.getMode() == BudgetMode.OFF) {
+            return;
+        }
+        var report = LatencyBudgets.finishTest(
+                testResult.getTestClass().getRealClass().getSimpleName() + "." + testResult.getMethod().getMethodName());
+        if (!report.isBreached()) {
+            return;
+        }
+        System.err.println(report);
+        Allure.addAttachment("Latency budget exceeded", "text/plain", report.toString(), "txt");
+        if (LatencyBudgets.getMode() == BudgetMode.FAIL && testResult.isSuccess()) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError(report.toString()));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.teamcity.api.extensions;
+
+import com.example.teamcity.api.generators.RandomData;
+import org.testng.IDataProviderListener;
+import org.testng.IDataProviderMethod;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * Делает данные data provider воспроизводимыми (свое зерно на каждый data provider) и при падении теста
+ * выводит зерно сьюта, с которым перезапуск повторит его {@link RandomData}. Сущности FixturePool зерном
+ * не воспроизводятся, если оно не было задано, поэтому их id выводятся отдельно
+ */
+public class RandomSeedListener implements ITestListener, IDataProviderListener {
+    // Атрибут результата теста с выданными сущностями пула, задается в BaseTest
+    public static final String POOLED_FIXTURES = "pooledFixtures";
+
+    @Override
+    public void beforeDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method,
+                                            ITestContext context) {
+        RandomData.reseed("dataProvider:" + RandomData.testId(method.getConstructorOrMethod().getMethod(), null));
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        System.err.printf("Random data of %s: rerun with -Drandom.seed=%d%n",
+                RandomData.testId(result.getMethod().getConstructorOrMethod().getMethod(), result.getParameters()),
+                RandomData.getSuiteSeed());
+        var pooledFixtures = result.getAttribute(POOLED_FIXTURES);
+        if (pooledFixtures != null && !RandomData.isSeedFixed()) {
+            System.err.printf("Pooled fixtures (not reproduced by the seed): %s%n", pooledFixtures);
+        }
+    }
+}
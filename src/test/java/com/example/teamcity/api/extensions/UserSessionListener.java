@@ -16,7 +16,7 @@ public class UserSessionListener implements IInvokedMethodListener {
                         method.getTestMethod().getTestClass().getRealClass().isAnnotationPresent(UserSession.class))) {
             Object testInstance = testResult.getInstance();
             if (testInstance instanceof BaseUiTest baseUiTest) {
-                User user = baseUiTest.testData.getUser();
+                User user = baseUiTest.getTestData().getUser();
                 baseUiTest.loginAs(user);
             } else {
                 throw new IllegalStateException("Test instance must extend BaseUiTest");
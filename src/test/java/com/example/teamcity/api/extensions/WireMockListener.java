@@ -0,0 +1,26 @@
+package com.example.teamcity.api.extensions;
+
+import com.example.teamcity.common.WireMock;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+/**
+ * Сбрасывает заглушки mock сервера потока после каждого теста и останавливает все серверы в конце сьюта
+ */
+public class WireMockListener implements IInvokedMethodListener, ISuiteListener {
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            WireMock.resetServer();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        WireMock.stopAllServers();
+    }
+}
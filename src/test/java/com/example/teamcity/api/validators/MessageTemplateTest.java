@@ -0,0 +1,42 @@
+package com.example.teamcity.api.validators;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = {"Unit"})
+public class MessageTemplateTest {
+
+    @Test(description = "Template should match placeholders at the start and at the end of a message")
+    public void leadingAndTrailingPlaceholdersTest() {
+        var template = MessageTemplate.compile("{0} is not found in {1}");
+        var arguments = new Object[]{"Project", "root"};
+
+        assertTrue(template.matches("Project is not found in root", arguments));
+        assertTrue(template.isContainedIn("Error: Project is not found in root.", arguments));
+        assertEquals(template.format(arguments), "Project is not found in root");
+    }
+
+    @Test(description = "Template starting with a placeholder should not hang when the message does not contain it",
+            timeOut = 5_000)
+    public void missTest() {
+        var template = MessageTemplate.compile("{0} already exists");
+        var arguments = new Object[]{"Project"};
+
+        assertFalse(template.isContainedIn("Build type already exists", arguments));
+        assertFalse(template.isContainedIn("", arguments));
+        assertFalse(template.matches("Project already exists!", arguments));
+    }
+
+    @Test(description = "Braces without an argument index should be matched as literal text")
+    public void literalBraceTest() {
+        var template = MessageTemplate.compile("{\"id\":\"{0}\"} {}");
+        var arguments = new Object[]{"abc"};
+
+        assertTrue(template.matches("{\"id\":\"abc\"} {}", arguments));
+        assertTrue(template.isContainedIn("body {\"id\":\"abc\"} {} end", arguments));
+        assertFalse(template.isContainedIn("{\"id\":\"xyz\"} {}", arguments));
+    }
+}
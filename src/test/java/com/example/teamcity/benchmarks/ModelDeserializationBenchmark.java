@@ -0,0 +1,133 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.serialization.ModelMapper;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.apache.http.HttpStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Сравнение десериализации ответа через RestAssured (then().statusCode().extract().as()) с путем CheckedBase:
+ * проверка статуса и закешированный ObjectReader по байтам тела. Ответы повторяют ответы TeamCity
+ * на создание проекта и build type, включая поля, которых нет в моделях.
+ * <p>
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.teamcity.benchmarks.ModelDeserializationBenchmark
+ * (модуль ускорения Jackson для readerXxx задается свойством json.module в config.properties)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelDeserializationBenchmark {
+    private Response projectResponse;
+    private Response buildTypeResponse;
+
+    @Setup
+    public void setUp() {
+        projectResponse = response(projectJson());
+        buildTypeResponse = response(buildTypeJson());
+    }
+
+    @Benchmark
+    public Project restAssuredProject() {
+        return projectResponse.then().assertThat().statusCode(HttpStatus.SC_OK).extract().as(Project.class);
+    }
+
+    @Benchmark
+    public Project readerProject() {
+        return ModelMapper.read(expectOk(projectResponse), Project.class);
+    }
+
+    @Benchmark
+    public BuildType restAssuredBuildType() {
+        return buildTypeResponse.then().assertThat().statusCode(HttpStatus.SC_OK).extract().as(BuildType.class);
+    }
+
+    @Benchmark
+    public BuildType readerBuildType() {
+        return ModelMapper.read(expectOk(buildTypeResponse), BuildType.class);
+    }
+
+    private static Response expectOk(Response response) {
+        if (response.getStatusCode() != HttpStatus.SC_OK) {
+            throw new AssertionError(response.getStatusCode());
+        }
+        return response;
+    }
+
+    private static Response response(String body) {
+        return new ResponseBuilder()
+                .setStatusCode(HttpStatus.SC_OK)
+                .setContentType(ContentType.JSON)
+                .setBody(body)
+                .build();
+    }
+
+    private static String projectJson() {
+        var buildTypes = IntStream.range(0, 20).mapToObj(i -> """
+                {"id":"test_project_build_%1$d","name":"Build %1$d","projectName":"test_project","projectId":"test_project",\
+                "href":"/app/rest/buildTypes/id:test_project_build_%1$d","webUrl":"http://teamcity/viewType.html?buildTypeId=test_project_build_%1$d"}\
+                """.formatted(i)).collect(Collectors.joining(","));
+        var parameters = IntStream.range(0, 10).mapToObj(i -> """
+                {"name":"env.PARAM_%1$d","value":"value_%1$d","inherited":false}""".formatted(i))
+                .collect(Collectors.joining(","));
+        return """
+                {"id":"test_project","name":"test_project","parentProjectId":"_Root","description":"Benchmark project",\
+                "href":"/app/rest/projects/id:test_project","webUrl":"http://teamcity/project.html?projectId=test_project",\
+                "parentProject":{"id":"_Root","name":"<Root project>","description":"Contains all other projects",\
+                "href":"/app/rest/projects/id:_Root","webUrl":"http://teamcity/project.html?projectId=_Root"},\
+                "buildTypes":{"count":20,"buildType":[%s]},"templates":{"count":0,"buildType":[]},\
+                "deploymentDashboards":{"count":0},"parameters":{"count":10,"href":"/app/rest/projects/id:test_project/parameters",\
+                "property":[%s]},"vcsRoots":{"count":0,"href":"/app/rest/vcs-roots?locator=project:(id:test_project)"},\
+                "projectFeatures":{"count":0,"href":"/app/rest/projects/id:test_project/projectFeatures"},\
+                "projects":{"count":0,"project":[]}}""".formatted(buildTypes, parameters);
+    }
+
+    private static String buildTypeJson() {
+        var steps = IntStream.range(0, 5).mapToObj(i -> """
+                {"id":"RUNNER_%1$d","name":"Step %1$d","type":"simpleRunner","properties":{"count":3,"property":[\
+                {"name":"script.content","value":"echo 'Hello World %1$d'"},{"name":"teamcity.step.mode","value":"default"},\
+                {"name":"use.custom.script","value":"true"}]}}""".formatted(i)).collect(Collectors.joining(","));
+        return """
+                {"id":"test_build_type","name":"test_build_type","projectName":"test_project","projectId":"test_project",\
+                "href":"/app/rest/buildTypes/id:test_build_type","webUrl":"http://teamcity/viewType.html?buildTypeId=test_build_type",\
+                "project":{"id":"test_project","name":"test_project","parentProjectId":"_Root",\
+                "href":"/app/rest/projects/id:test_project","webUrl":"http://teamcity/project.html?projectId=test_project"},\
+                "templates":{"count":0,"buildType":[]},"vcs-root-entries":{"count":0},"settings":{"count":0,"property":[]},\
+                "parameters":{"property":[],"count":0,"href":"/app/rest/buildTypes/id:test_build_type/parameters"},\
+                "steps":{"count":5,"step":[%s]},"features":{"count":0},"triggers":{"count":0},"snapshot-dependencies":{"count":0},\
+                "artifact-dependencies":{"count":0},"agent-requirements":{"count":0},\
+                "builds":{"href":"/app/rest/buildTypes/id:test_build_type/builds/"},\
+                "investigations":{"href":"/app/rest/investigations?locator=buildType:(id:test_build_type)"},\
+                "compatibleAgents":{"href":"/app/rest/agents?locator=compatible:(buildType:(id:test_build_type))"}}\
+                """.formatted(steps);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ModelDeserializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
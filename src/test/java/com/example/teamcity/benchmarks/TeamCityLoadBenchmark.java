@@ -0,0 +1,19 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.load.LoadRunner;
+import com.example.teamcity.api.spec.BufferedCoverageOutputWriter;
+
+/**
+ * Нагрузочный прогон сервера host сценариями из load.scenarios по профилю load.* (см. config.properties).
+ * Свойства можно переопределить через -D, например -Dload.model=open -Dload.ratePerSecond=200.
+ * <p>
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.teamcity.benchmarks.TeamCityLoadBenchmark -Dlogging.mode=off
+ */
+public class TeamCityLoadBenchmark {
+
+    public static void main(String[] args) {
+        System.out.println(LoadRunner.fromConfig().run());
+        BufferedCoverageOutputWriter.getInstance().flush();
+    }
+}
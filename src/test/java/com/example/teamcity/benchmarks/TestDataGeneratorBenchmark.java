@@ -0,0 +1,131 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.annotations.Optional;
+import com.example.teamcity.api.annotations.Parameterizable;
+import com.example.teamcity.api.annotations.Random;
+import com.example.teamcity.api.generators.RandomData;
+import com.example.teamcity.api.generators.TestDataGenerator;
+import com.example.teamcity.api.models.BaseModel;
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.TestData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение генерации тестовых данных через закешированный план (MethodHandle) с прежним рефлексивным способом.
+ * <p>
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.teamcity.benchmarks.TestDataGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestDataGeneratorBenchmark {
+
+    // Все поля ленивых TestData, как при прежней генерации в BaseTest
+    @Benchmark
+    public TestData planTestData() {
+        var testData = TestDataGenerator.generate();
+        testData.getBuildType();
+        testData.getUser();
+        return testData;
+    }
+
+    // Тест, который использует только проект
+    @Benchmark
+    public TestData lazyProjectTestData() {
+        var testData = TestDataGenerator.generate();
+        testData.getProject();
+        return testData;
+    }
+
+    @Benchmark
+    public TestData reflectiveTestData() throws ReflectiveOperationException {
+        var instance = new TestData();
+        var generatedModels = new ArrayList<BaseModel>();
+        for (var field : TestData.class.getDeclaredFields()) {
+            field.setAccessible(true);
+            if (BaseModel.class.isAssignableFrom(field.getType())) {
+                var generatedModel = reflectiveGenerate(generatedModels, field.getType().asSubclass(BaseModel.class));
+                field.set(instance, generatedModel);
+                generatedModels.add(generatedModel);
+            }
+            field.setAccessible(false);
+        }
+        return instance;
+    }
+
+    @Benchmark
+    public BuildType planBuildType() {
+        return TestDataGenerator.generate(BuildType.class, "benchmarkId");
+    }
+
+    @Benchmark
+    public BuildType reflectiveBuildType() throws ReflectiveOperationException {
+        return reflectiveGenerate(List.of(), BuildType.class, "benchmarkId");
+    }
+
+    // Прежняя реализация TestDataGenerator.generate, оставлена как baseline для сравнения
+    private static <T extends BaseModel> T reflectiveGenerate(List<BaseModel> generatedModels, Class<T> generatorClass,
+                                                              Object... parameters)
+            throws ReflectiveOperationException {
+        var instance = generatorClass.getDeclaredConstructor().newInstance();
+        for (var field : generatorClass.getDeclaredFields()) {
+            field.setAccessible(true);
+            if (!field.isAnnotationPresent(Optional.class)) {
+                var generatedClass = generatedModels.stream().filter(m
+                        -> m.getClass().equals(field.getType())).findFirst();
+                if (field.isAnnotationPresent(Parameterizable.class) && parameters.length > 0) {
+                    field.set(instance, parameters[0]);
+                    parameters = Arrays.copyOfRange(parameters, 1, parameters.length);
+                } else if (field.isAnnotationPresent(Random.class)) {
+                    if (String.class.equals(field.getType())) {
+                        field.set(instance, RandomData.getString());
+                    }
+                } else if (BaseModel.class.isAssignableFrom(field.getType())) {
+                    if (generatedClass.isPresent()) {
+                        field.set(instance, generatedClass.get());
+                    } else {
+                        field.set(instance, reflectiveGenerate(
+                                generatedModels, field.getType().asSubclass(BaseModel.class), parameters));
+                    }
+                } else if (List.class.isAssignableFrom(field.getType())) {
+                    if (field.getGenericType() instanceof ParameterizedType pt) {
+                        var typeClass = (Class<?>) pt.getActualTypeArguments()[0];
+                        if (BaseModel.class.isAssignableFrom(typeClass)) {
+                            field.set(instance, List.of(reflectiveGenerate(
+                                    generatedModels, typeClass.asSubclass(BaseModel.class), parameters)));
+                        }
+                    }
+                }
+            }
+            field.setAccessible(false);
+        }
+        return instance;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TestDataGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,43 +1,95 @@
 package com.example.teamcity.common;
 
+import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.models.BaseModel;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.teamcity.api.serialization.ModelMapper;
+import com.example.teamcity.api.spec.Specifications;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import lombok.SneakyThrows;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.common.ContentTypes.APPLICATION_JSON;
 import static com.github.tomakehurst.wiremock.common.ContentTypes.CONTENT_TYPE;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 
+/**
+ * Mock сервер на поток теста: сервер запускается на динамическом порту при первой заглушке в потоке,
+ * и его адрес получает Specifications.mockSpec() этого же потока. Поэтому тесты с заглушками можно запускать
+ * параллельно. Заглушки сбрасываются после каждого теста, а серверы останавливаются в конце сьюта
+ * (WireMockListener). Ответы отдаются асинхронно (mock.asyncResponseThreads), не занимая потоки Jetty.
+ */
 public final class WireMock {
+    private static final int ASYNC_RESPONSE_THREADS = Config.getIntProperty("mock.asyncResponseThreads", 4);
+    private static final int CONTAINER_THREADS = Config.getIntProperty("mock.containerThreads", 10);
 
-    private static WireMockServer wireMockServer;
+    private static final ThreadLocal<WireMockServer> SERVER = new ThreadLocal<>();
+    private static final Queue<WireMockServer> SERVERS = new ConcurrentLinkedQueue<>();
 
     private WireMock() {
     }
 
     @SneakyThrows
     public static void setupServer(MappingBuilder mappingBuilder, int status, BaseModel model) {
-        if (wireMockServer == null) {
-            wireMockServer = new WireMockServer(8081);
-            wireMockServer.start();
-        }
-
-        var jsonModel = new ObjectMapper().writeValueAsString(model);
+        var jsonModel = ModelMapper.getMapper().writeValueAsString(model);
 
-        wireMockServer.stubFor(mappingBuilder
+        getServer().stubFor(mappingBuilder
                 .willReturn(aResponse()
                         .withStatus(status)
                         .withHeader(CONTENT_TYPE, APPLICATION_JSON)
                         .withBody(jsonModel)));
     }
 
+    /**
+     * Сервер текущего потока, запускается при первом обращении
+     */
+    public static WireMockServer getServer() {
+        var wireMockServer = SERVER.get();
+        // Сервер мог быть остановлен stopAllServers из другого потока
+        if (wireMockServer == null || !wireMockServer.isRunning()) {
+            wireMockServer = new WireMockServer(wireMockConfig()
+                    .dynamicPort()
+                    .containerThreads(CONTAINER_THREADS)
+                    .asynchronousResponseEnabled(ASYNC_RESPONSE_THREADS > 0)
+                    .asynchronousResponseThreads(Math.max(ASYNC_RESPONSE_THREADS, 1)));
+            wireMockServer.start();
+            SERVER.set(wireMockServer);
+            SERVERS.add(wireMockServer);
+            Specifications.setMockBaseUri(wireMockServer.baseUrl());
+        }
+        return wireMockServer;
+    }
+
+    /**
+     * Удаляет заглушки и журнал запросов сервера текущего потока, сам сервер остается запущенным
+     */
+    public static void resetServer() {
+        var wireMockServer = SERVER.get();
+        if (wireMockServer != null) {
+            wireMockServer.resetAll();
+        }
+    }
+
     public static void stopServer() {
+        var wireMockServer = SERVER.get();
         if (wireMockServer != null) {
             wireMockServer.stop();
-            wireMockServer = null;
+            SERVERS.remove(wireMockServer);
+            SERVER.remove();
+            Specifications.setMockBaseUri(null);
         }
     }
 
+    /**
+     * Останавливает серверы всех потоков
+     */
+    public static void stopAllServers() {
+        WireMockServer wireMockServer;
+        while ((wireMockServer = SERVERS.poll()) != null) {
+            wireMockServer.stop();
+        }
+    }
 }
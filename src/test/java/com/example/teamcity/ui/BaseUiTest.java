@@ -4,6 +4,7 @@ import com.codeborne.selenide.Configuration;
 import com.codeborne.selenide.Selenide;
 import com.codeborne.selenide.logevents.SelenideLogger;
 import com.example.teamcity.BaseTest;
+import com.example.teamcity.api.annotations.UsesResource;
 import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.enums.Endpoint;
 import com.example.teamcity.api.models.User;
@@ -14,6 +15,7 @@ import org.testng.annotations.BeforeSuite;
 
 import java.util.Map;
 
+@UsesResource({"browser", "teamcity"})
 public class BaseUiTest extends BaseTest {
     @BeforeSuite(alwaysRun = true)
     public void setupUiTest() {
@@ -37,7 +39,7 @@ public class BaseUiTest extends BaseTest {
     }
 
     public void loginAs(User user) {
-        superUserCheckRequests.getRequest(Endpoint.USERS).create(testData.getUser());
-        LoginPage.open().login(testData.getUser());
+        superUserCheckRequests.getRequest(Endpoint.USERS).create(getTestData().getUser());
+        LoginPage.open().login(getTestData().getUser());
     }
 }
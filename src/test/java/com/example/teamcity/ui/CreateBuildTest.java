@@ -6,7 +6,6 @@ import com.example.teamcity.api.extensions.UserSessionListener;
 import com.example.teamcity.api.models.BuildType;
 import com.example.teamcity.api.models.Project;
 import com.example.teamcity.api.requests.CheckedRequests;
-import com.example.teamcity.api.spec.Specifications;
 import com.example.teamcity.ui.pages.ProjectBuildsPage;
 import com.example.teamcity.ui.pages.admin.CreateBuildConfigurationPage;
 import org.testng.annotations.Listeners;
@@ -25,11 +24,11 @@ public class CreateBuildTest extends BaseUiTest {
     public void shouldCreateBuildConfiguration() {
 
 
-        var request = new CheckedRequests(Specifications.authSpec(testData.getUser()));
-        Project project = request.<Project>getRequest(Endpoint.PROJECTS).create(testData.getProject());
+        var request = CheckedRequests.forUser(getTestData().getUser());
+        Project project = request.<Project>getRequest(Endpoint.PROJECTS).create(getTestData().getProject());
 
         CreateBuildConfigurationPage page = CreateBuildConfigurationPage.open(project.getId());
-        page.createForm(REPO_URL).setBuildConfigurationName(testData.getBuildType().getName());
+        page.createForm(REPO_URL).setBuildConfigurationName(getTestData().getBuildType().getName());
 
         List<String> buildNames = ProjectBuildsPage.open(project.getId())
                 .getBuilds()
@@ -37,26 +36,26 @@ public class CreateBuildTest extends BaseUiTest {
                 .map(b -> b.getName().text())
                 .toList();
 
-        softy.assertTrue(buildNames.contains(testData.getBuildType().getName()),
+        getSofty().assertTrue(buildNames.contains(getTestData().getBuildType().getName()),
                 "Created build should appear in builds list");
 
         var buildType = request.getRequest(Endpoint.BUILD_TYPES)
-                .readByName(testData.getBuildType().getName());
-        softy.assertEquals(((BuildType) buildType).getName(), testData.getBuildType().getName(),
+                .readByName(getTestData().getBuildType().getName());
+        getSofty().assertEquals(((BuildType) buildType).getName(), getTestData().getBuildType().getName(),
                 "Build configuration name should match expected value");
     }
 
     @Test(description = "User should not be able to create build with empty name", groups = {"Negative"})
     @UserSession
     public void shouldNotCreateBuildWithEmptyName() {
-        var request = new CheckedRequests(Specifications.authSpec(testData.getUser()));
-        Project project = request.<Project>getRequest(Endpoint.PROJECTS).create(testData.getProject());
+        var request = CheckedRequests.forUser(getTestData().getUser());
+        Project project = request.<Project>getRequest(Endpoint.PROJECTS).create(getTestData().getProject());
 
         CreateBuildConfigurationPage page = CreateBuildConfigurationPage.open(project.getId());
         var form = page.createForm(REPO_URL);
         var errorElement = form.setBuildConfigurationName("").getBuildConfigurationNameInputError();
 
-        softy.assertEquals(errorElement.getText(), ERROR_MESSAGE, "Error message should match expected");
+        getSofty().assertEquals(errorElement.getText(), ERROR_MESSAGE, "Error message should match expected");
 
         List<String> buildNames = ProjectBuildsPage.open(project.getId())
                 .getBuilds()
@@ -64,10 +63,10 @@ public class CreateBuildTest extends BaseUiTest {
                 .map(b -> b.getName().text())
                 .toList();
 
-        softy.assertTrue(buildNames.isEmpty(), "No builds should be created with empty name");
+        getSofty().assertTrue(buildNames.isEmpty(), "No builds should be created with empty name");
 
         BuildType buildType = (BuildType) request.getRequest(Endpoint.BUILD_TYPES)
                 .readByName("");
-        softy.assertNull(buildType.getName(), "Build configuration should not exist in API after failed creation");
+        getSofty().assertNull(buildType.getName(), "Build configuration should not exist in API after failed creation");
     }
 }
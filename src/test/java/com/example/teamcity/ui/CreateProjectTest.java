@@ -16,27 +16,27 @@ public class CreateProjectTest extends BaseUiTest {
     @Test(description = "User should be able to create project", groups = {"Positive"})
     public void userCreatesProject() throws InterruptedException {
         // подготовка окружения
-        loginAs(testData.getUser());
+        loginAs(getTestData().getUser());
 
         // взаимодействие с UI
         CreateProjectPage.open("_Root")
                 .createForm(REPO_URL)
-                .setupProject(testData.getProject().getName(), testData.getBuildType().getName());
+                .setupProject(getTestData().getProject().getName(), getTestData().getBuildType().getName());
 
         // проверка состояния API
         // (корректность отправки данных с UI на API)
-        var createdProject = superUserCheckRequests.<Project>getRequest(Endpoint.PROJECTS).read("name:" + testData.getProject().getName());
-        softy.assertNotNull(createdProject);
+        var createdProject = superUserCheckRequests.<Project>getRequest(Endpoint.PROJECTS).read("name:" + getTestData().getProject().getName());
+        getSofty().assertNotNull(createdProject);
 
         // проверка состояния UI
         // (корректность считывания данных и отображение данных на UI)
         ProjectPage.open(createdProject.getId())
-                .title.shouldHave(Condition.exactText(testData.getProject().getName()));
+                .title.shouldHave(Condition.exactText(getTestData().getProject().getName()));
 
         var foundProjects = ProjectsPage.open()
                 .getProjects().stream()
-                .anyMatch(project -> project.getName().text().equals(testData.getProject().getName()));
+                .anyMatch(project -> project.getName().text().equals(getTestData().getProject().getName()));
 
-        softy.assertTrue(foundProjects);
+        getSofty().assertTrue(foundProjects);
     }
 }
\ No newline at end of file